@@ -0,0 +1,67 @@
+package com.nortal.library.api.aop;
+
+import com.nortal.library.core.LibraryService.BatchCommand;
+import com.nortal.library.core.lock.BookLocked;
+import com.nortal.library.core.lock.BooksLocked;
+import com.nortal.library.core.lock.StripedLockManager;
+import java.util.List;
+import java.util.Objects;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the book's lock stripe around a {@link BookLocked} operation, and every book's around a
+ * {@link BooksLocked} batch, so grouped and single operations on one book take turns. Ordered
+ * inside the retry aspect and outside the transaction, so the stripes are taken before any row is
+ * read and released only after commit, and each retry queues again.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "library.locks.enabled", matchIfMissing = true)
+public class BookLockAspect {
+
+  private final StripedLockManager lockManager;
+
+  public BookLockAspect(StripedLockManager lockManager) {
+    this.lockManager = lockManager;
+  }
+
+  @Around("@annotation(com.nortal.library.core.lock.BookLocked)")
+  public Object lockBook(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (!(joinPoint.getArgs()[0] instanceof String bookId)) {
+      // let the service reject the missing id itself
+      return joinPoint.proceed();
+    }
+    int stripe = lockManager.lock(bookId);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      lockManager.unlock(stripe);
+    }
+  }
+
+  @Around("@annotation(com.nortal.library.core.lock.BooksLocked)")
+  public Object lockBooks(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (!(joinPoint.getArgs()[0] instanceof List<?> commands)) {
+      return joinPoint.proceed();
+    }
+    List<String> bookIds =
+        commands.stream()
+            .filter(BatchCommand.class::isInstance)
+            .map(command -> ((BatchCommand) command).bookId())
+            .filter(Objects::nonNull)
+            .toList();
+    int[] stripes = lockManager.lockAll(bookIds);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      lockManager.unlockAll(stripes);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.nortal.library.api.aop;
+
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.version.Catalog;
+import com.nortal.library.core.version.CatalogVersions;
+import com.nortal.library.core.version.ChangesCatalog;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the catalog versions a {@link ChangesCatalog} operation names. Ordered outside the
+ * transaction, so the bump follows the commit: a reader that still sees the old version can only be
+ * served the old rows, never tag the old rows with the new version. An operation that returns a
+ * failed result changed nothing and bumps nothing.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class CatalogVersionAspect {
+
+  private final CatalogVersions versions;
+
+  public CatalogVersionAspect(CatalogVersions versions) {
+    this.versions = versions;
+  }
+
+  @AfterReturning(pointcut = "@annotation(change)", returning = "result")
+  public void bump(ChangesCatalog change, Object result) {
+    if (result instanceof LibraryService.Result r && !r.ok()
+        || result instanceof LibraryService.ResultWithNext next && !next.ok()) {
+      return;
+    }
+    for (Catalog catalog : change.value()) {
+      versions.bump(catalog);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.nortal.library.api.aop;
+
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.LibraryService.BatchCommand;
+import com.nortal.library.core.LibraryService.BatchOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times and counts every public {@code LibraryService} call, tagged by operation, outcome ({@code
+ * success}, {@code failure} or {@code error}) and reason: the {@code Result} reason of a failure,
+ * the exception type of an error. Ordered outermost, so lock waits and retries count towards the
+ * time. Meters are registered on first use and then found by the reason string alone, so a call
+ * builds no tags.
+ *
+ * <p>The commands of a {@code runBatch} are counted under their own operations as well, with the
+ * batch's time, so borrows and returns show up the same whether or not they were grouped.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OperationMetricsAspect {
+
+  static final String TIMER = "library.operation";
+  static final String COUNTER = "library.operation.outcomes";
+  private static final String NONE = "none";
+
+  private final MeterRegistry registry;
+  private final Map<String, OperationMeters> operations = new ConcurrentHashMap<>();
+
+  public OperationMetricsAspect(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Around("execution(public * com.nortal.library.core.LibraryService.*(..))")
+  public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+    OperationMeters meters = meters(joinPoint.getSignature().getName());
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable e) {
+      meters.error.record(e.getClass().getSimpleName(), System.nanoTime() - start);
+      throw e;
+    }
+    long elapsed = System.nanoTime() - start;
+    switch (result) {
+      case LibraryService.Result r when !r.ok() ->
+          meters.failure.record(reason(r.reason()), elapsed);
+      case LibraryService.ResultWithNext r when !r.ok() -> meters.failure.record(NONE, elapsed);
+      case LibraryService.MemberSummary r when !r.ok() ->
+          meters.failure.record(reason(r.reason()), elapsed);
+      case null, default -> meters.success.record(NONE, elapsed);
+    }
+    Object[] args = joinPoint.getArgs();
+    if (result instanceof List<?> outcomes
+        && args.length > 0
+        && args[0] instanceof List<?> commands
+        && outcomes.size() == commands.size()) {
+      for (int i = 0; i < outcomes.size(); i++) {
+        if (commands.get(i) instanceof BatchCommand command
+            && command.operation() != null
+            && outcomes.get(i) instanceof BatchOutcome outcome) {
+          OperationMeters batched = meters(operationOf(command));
+          (outcome.ok() ? batched.success : batched.failure)
+              .record(reason(outcome.reason()), elapsed);
+        }
+      }
+    }
+    return result;
+  }
+
+  private OperationMeters meters(String name) {
+    OperationMeters meters = operations.get(name);
+    return meters != null ? meters : operations.computeIfAbsent(name, OperationMeters::new);
+  }
+
+  // the service method the command stands for
+  private static String operationOf(BatchCommand command) {
+    return switch (command.operation()) {
+      case BORROW -> "borrowBook";
+      case RETURN -> "returnBook";
+      case RESERVE -> "reserveBook";
+      case CANCEL -> "cancelReservation";
+    };
+  }
+
+  private static String reason(String reason) {
+    return reason == null ? NONE : reason;
+  }
+
+  private final class OperationMeters {
+    final Outcome success;
+    final Outcome failure;
+    final Outcome error;
+
+    OperationMeters(String operation) {
+      success = new Outcome(operation, "success");
+      failure = new Outcome(operation, "failure");
+      error = new Outcome(operation, "error");
+    }
+  }
+
+  /** One operation's meters for one outcome, by reason. */
+  private final class Outcome {
+    private final Tags tags;
+    private final Map<String, Meters> byReason = new ConcurrentHashMap<>();
+
+    Outcome(String operation, String outcome) {
+      tags = Tags.of("operation", operation, "outcome", outcome);
+    }
+
+    void record(String reason, long nanos) {
+      Meters meters = byReason.get(reason);
+      if (meters == null) {
+        meters = byReason.computeIfAbsent(reason, this::register);
+      }
+      meters.timer.record(nanos, TimeUnit.NANOSECONDS);
+      meters.counter.increment();
+    }
+
+    private Meters register(String reason) {
+      Tags withReason = tags.and("reason", reason);
+      return new Meters(
+          Timer.builder(TIMER)
+              .description("LibraryService calls")
+              .tags(withReason)
+              .register(registry),
+          Counter.builder(COUNTER)
+              .description("LibraryService call outcomes")
+              .tags(withReason)
+              .register(registry));
+    }
+  }
+
+  private record Meters(Timer timer, Counter counter) {}
+}
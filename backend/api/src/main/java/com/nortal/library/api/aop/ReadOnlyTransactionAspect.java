@@ -0,0 +1,53 @@
+package com.nortal.library.api.aop;
+
+import com.nortal.library.core.tx.ReadOnlyTransaction;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Runs a {@link ReadOnlyTransaction} operation in a read-only transaction. Under JPA that puts the
+ * session in manual flush mode with read-only entities, so Hibernate keeps no snapshots to
+ * dirty-check, and marks the JDBC connection read-only. The service declares its transactions with
+ * the Jakarta annotation, which has no read-only flag, hence the separate marker.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ReadOnlyTransactionAspect {
+
+  private static final TransactionDefinition READ_ONLY = readOnly();
+
+  private final PlatformTransactionManager transactionManager;
+
+  public ReadOnlyTransactionAspect(PlatformTransactionManager transactionManager) {
+    this.transactionManager = transactionManager;
+  }
+
+  @Around("@annotation(com.nortal.library.core.tx.ReadOnlyTransaction)")
+  public Object readOnly(ProceedingJoinPoint joinPoint) throws Throwable {
+    TransactionStatus status = transactionManager.getTransaction(READ_ONLY);
+    Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable e) {
+      transactionManager.rollback(status);
+      throw e;
+    }
+    transactionManager.commit(status);
+    return result;
+  }
+
+  private static TransactionDefinition readOnly() {
+    DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+    definition.setReadOnly(true);
+    return definition;
+  }
+}
@@ -0,0 +1,73 @@
+package com.nortal.library.api.aop;
+
+import com.nortal.library.api.replica.ReadYourWrites;
+import com.nortal.library.core.LibraryService.BatchCommand;
+import com.nortal.library.core.tx.MemberOperation;
+import java.util.List;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link ReadYourWrites} when reads may come from a replica. A write transaction that returns
+ * has committed, so its caller and the member it names, or every member of a batch, are recorded
+ * then. A {@link MemberOperation} read runs with its member as the reader.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+@Profile("!memory")
+@ConditionalOnProperty(name = "library.replica.enabled", havingValue = "true")
+public class ReadYourWritesAspect {
+
+  private final ReadYourWrites readYourWrites;
+
+  public ReadYourWritesAspect(ReadYourWrites readYourWrites) {
+    this.readYourWrites = readYourWrites;
+  }
+
+  @AfterReturning("@annotation(jakarta.transaction.Transactional)")
+  public void recordWrite(JoinPoint joinPoint) {
+    readYourWrites.callerWrote();
+    MemberOperation operation =
+        ((MethodSignature) joinPoint.getSignature())
+            .getMethod()
+            .getAnnotation(MemberOperation.class);
+    if (operation != null
+        && joinPoint.getArgs()[operation.memberParameter()] instanceof String id) {
+      readYourWrites.wrote(id);
+    }
+    for (Object arg : joinPoint.getArgs()) {
+      if (arg instanceof List<?> commands
+          && !commands.isEmpty()
+          && commands.get(0) instanceof BatchCommand) {
+        for (Object command : commands) {
+          readYourWrites.wrote(((BatchCommand) command).memberId());
+        }
+      }
+    }
+  }
+
+  @Around(
+      "@annotation(com.nortal.library.core.tx.ReadOnlyTransaction)" + " && @annotation(operation)")
+  public Object readAsMember(ProceedingJoinPoint joinPoint, MemberOperation operation)
+      throws Throwable {
+    if (!(joinPoint.getArgs()[operation.memberParameter()] instanceof String memberId)) {
+      return joinPoint.proceed();
+    }
+    String previous = readYourWrites.enter(memberId);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      readYourWrites.leave(previous);
+    }
+  }
+}
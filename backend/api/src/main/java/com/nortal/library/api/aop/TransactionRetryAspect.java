@@ -0,0 +1,85 @@
+package com.nortal.library.api.aop;
+
+import com.nortal.library.core.tx.RetryOnConflict;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Re-runs a {@link RetryOnConflict} service operation that lost an optimistic-locking race (or
+ * timed out on a row lock) against a concurrent one. Ordered inside the metrics aspect and ahead of
+ * the transaction interceptor, so every attempt is a fresh transaction that re-reads the current
+ * state. Backoff is exponential with full jitter so the losers of one race do not collide again in
+ * lockstep. Batches and imports are not marked, so their conflicts go straight to the caller.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TransactionRetryAspect {
+  private static final Logger log = LoggerFactory.getLogger(TransactionRetryAspect.class);
+
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong exhausted = new AtomicLong();
+
+  public TransactionRetryAspect(
+      @Value("${library.retry.max-attempts:5}") int maxAttempts,
+      @Value("${library.retry.initial-backoff-ms:2}") long initialBackoffMillis,
+      @Value("${library.retry.max-backoff-ms:50}") long maxBackoffMillis) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("library.retry.max-attempts must be at least 1");
+    }
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMillis = initialBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+
+  @Around("@annotation(com.nortal.library.core.tx.RetryOnConflict)")
+  public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+    // inside an outer transaction a retry would replay against the same, already failed, state
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return joinPoint.proceed();
+    }
+    long backoff = initialBackoffMillis;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return joinPoint.proceed();
+      } catch (ConcurrencyFailureException e) {
+        if (attempt >= maxAttempts) {
+          exhausted.incrementAndGet();
+          throw e;
+        }
+        retries.incrementAndGet();
+        log.debug(
+            "{} conflicted on attempt {}, retrying: {}",
+            joinPoint.getSignature().getName(),
+            attempt,
+            e.getMessage());
+        Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+        backoff = Math.min(backoff * 2, maxBackoffMillis);
+      }
+    }
+  }
+
+  /** Attempts re-run after a conflict since startup. */
+  public long retries() {
+    return retries.get();
+  }
+
+  /** Operations that still conflicted on their last attempt and were surfaced to the caller. */
+  public long exhausted() {
+    return exhausted.get();
+  }
+}
@@ -0,0 +1,17 @@
+package com.nortal.library.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * {@code library.batch.*}: the batch endpoint runs {@code chunk-size} commands per transaction and
+ * takes at most {@code max-commands} per request. Values below one fail startup; a chunk size of
+ * zero would never get past the first chunk.
+ */
+@Validated
+@ConfigurationProperties("library.batch")
+public record BatchProperties(
+    @DefaultValue("100") @Positive int chunkSize,
+    @DefaultValue("1000") @Positive int maxCommands) {}
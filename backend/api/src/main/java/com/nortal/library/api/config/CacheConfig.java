@@ -0,0 +1,22 @@
+package com.nortal.library.api.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.nortal.library.persistence.adapter.MemberRepositoryAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+  @Bean
+  CacheManager cacheManager(@Value("${library.cache.member-exists-spec}") String memberExistsSpec) {
+    CaffeineCacheManager caffeine = new CaffeineCacheManager(MemberRepositoryAdapter.EXISTS_CACHE);
+    caffeine.setCaffeineSpec(CaffeineSpec.parse(memberExistsSpec));
+    // evictions wait for the commit, otherwise a concurrent lookup could re-cache the old answer
+    return new TransactionAwareCacheManagerProxy(caffeine);
+  }
+}
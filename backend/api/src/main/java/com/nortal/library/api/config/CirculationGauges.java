@@ -0,0 +1,79 @@
+package com.nortal.library.api.config;
+
+import com.nortal.library.core.domain.CirculationStats;
+import com.nortal.library.core.port.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges for books on loan, queued reservations and the longest queue. All three read one snapshot,
+ * refreshed at most every {@code library.metrics.circulation-refresh-ms}, so a scrape costs one
+ * round of counting queries rather than one per gauge.
+ */
+@Component
+public class CirculationGauges implements MeterBinder {
+
+  private final BookRepository bookRepository;
+  private final long refreshNanos;
+  // not a monitor: the refresh runs queries, which would pin a virtual thread's carrier
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private volatile Snapshot snapshot;
+
+  public CirculationGauges(
+      BookRepository bookRepository,
+      @Value("${library.metrics.circulation-refresh-ms:5000}") long refreshMillis) {
+    this.bookRepository = bookRepository;
+    this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    gauge(registry, "library.loans.active", "Books out on loan", CirculationStats::activeLoans);
+    gauge(
+        registry,
+        "library.reservations.queued",
+        "Members waiting in reservation queues",
+        CirculationStats::queuedReservations);
+    gauge(
+        registry,
+        "library.reservations.longest.queue",
+        "Members waiting for the most reserved book",
+        CirculationStats::longestQueue);
+  }
+
+  private void gauge(
+      MeterRegistry registry,
+      String name,
+      String description,
+      ToDoubleFunction<CirculationStats> value) {
+    Gauge.builder(name, this, gauges -> value.applyAsDouble(gauges.current()))
+        .description(description)
+        .register(registry);
+  }
+
+  private CirculationStats current() {
+    long now = System.nanoTime();
+    Snapshot taken = snapshot;
+    if (taken == null || now - taken.takenAt() >= refreshNanos) {
+      refreshLock.lock();
+      try {
+        taken = snapshot;
+        if (taken == null || now - taken.takenAt() >= refreshNanos) {
+          taken = new Snapshot(bookRepository.circulationStats(), System.nanoTime());
+          snapshot = taken;
+        }
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+    return taken.stats();
+  }
+
+  private record Snapshot(CirculationStats stats, long takenAt) {}
+}
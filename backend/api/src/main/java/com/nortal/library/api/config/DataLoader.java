@@ -4,8 +4,11 @@ import com.nortal.library.core.LibraryService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
+// the seed profile loads a generated catalog instead, see SyntheticDataLoader
 @Configuration
+@Profile("!seed")
 public class DataLoader {
 
   @Bean
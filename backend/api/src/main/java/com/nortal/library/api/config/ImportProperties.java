@@ -0,0 +1,15 @@
+package com.nortal.library.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * {@code library.import.*}: {@code batch-size} rows are inserted per transaction and JDBC batch by
+ * the import endpoints. A batch size below one fails startup rather than leaving a file to load as
+ * one unbounded batch.
+ */
+@Validated
+@ConfigurationProperties("library.import")
+public record ImportProperties(@DefaultValue("1000") @Positive int batchSize) {}
@@ -1,16 +1,108 @@
 package com.nortal.library.api.config;
 
 import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.commit.GroupCommitExecutor;
+import com.nortal.library.core.index.DueDateIndex;
+import com.nortal.library.core.lock.StripedLockManager;
 import com.nortal.library.core.port.BookRepository;
 import com.nortal.library.core.port.MemberRepository;
+import com.nortal.library.core.version.CatalogVersions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Configuration
+@EnableConfigurationProperties({BatchProperties.class, ImportProperties.class})
 public class LibraryConfig {
+  private static final Logger log = LoggerFactory.getLogger(LibraryConfig.class);
 
   @Bean
-  LibraryService libraryService(BookRepository bookRepository, MemberRepository memberRepository) {
-    return new LibraryService(bookRepository, memberRepository);
+  LibraryService libraryService(
+      BookRepository bookRepository,
+      MemberRepository memberRepository,
+      @Value("${library.overdue.in-memory-index:false}") boolean inMemoryOverdueIndex) {
+    return new LibraryService(
+        bookRepository,
+        memberRepository,
+        inMemoryOverdueIndex ? new DueDateIndex() : null,
+        LibraryConfig::afterCommit);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  @Bean
+  StripedLockManager stripedLockManager(@Value("${library.locks.stripes:1024}") int stripes) {
+    return new StripedLockManager(stripes);
+  }
+
+  // bumped by CatalogVersionAspect; read for the ETags of the list endpoints
+  @Bean
+  CatalogVersions catalogVersions() {
+    return new CatalogVersions();
+  }
+
+  // borrow/return/reserve/cancel requests then share transactions; see LoanController
+  @Bean
+  @ConditionalOnProperty(name = "library.group-commit.enabled")
+  GroupCommitExecutor groupCommitExecutor(
+      LibraryService libraryService,
+      MeterRegistry registry,
+      @Value("${library.group-commit.max-batch:64}") int maxBatch,
+      @Value("${library.group-commit.window-micros:1500}") long windowMicros,
+      @Value("${library.group-commit.timeout-ms:30000}") long timeoutMillis) {
+    GroupCommitExecutor executor =
+        new GroupCommitExecutor(libraryService::runBatch, maxBatch, windowMicros, timeoutMillis);
+    FunctionCounter.builder("library.group.commit.batches", executor, GroupCommitExecutor::batches)
+        .description("Transactions committed by the group commit executor")
+        .register(registry);
+    FunctionCounter.builder(
+            "library.group.commit.commands", executor, GroupCommitExecutor::commands)
+        .description("Commands submitted to the group commit executor")
+        .register(registry);
+    FunctionCounter.builder(
+            "library.group.commit.isolated", executor, GroupCommitExecutor::isolatedReruns)
+        .description("Commands re-run alone after their batch failed to commit")
+        .register(registry);
+    return executor;
+  }
+
+  // runs after the seed data so the counters start from the loans actually on disk
+  @Bean
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  CommandLineRunner loanCounterReconciler(
+      LibraryService libraryService,
+      @Value("${library.loans.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+    return args -> {
+      if (!reconcileOnStartup) {
+        return;
+      }
+      int drifted = libraryService.reconcileLoanCounters();
+      if (drifted > 0) {
+        log.warn("Reconciled {} drifted active-loan counters", drifted);
+      }
+    };
   }
 }
@@ -0,0 +1,89 @@
+package com.nortal.library.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier, for example inside a {@code
+ * synchronized} block around JDBC work. Only a handful of carriers exist, so a few pinned requests
+ * stall all the others. Each pin longer than {@code library.threads.pinned-threshold-ms} is
+ * recorded in the {@code library.threads.pinned} timer, and the first one from each call site is
+ * logged with its stack.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+  private static final String EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 12;
+
+  private final Timer pinned;
+  private final Duration threshold;
+  private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+  private RecordingStream stream;
+
+  public PinnedThreadMonitor(
+      MeterRegistry registry,
+      @Value("${library.threads.pinned-threshold-ms:20}") long thresholdMillis) {
+    this.pinned =
+        Timer.builder("library.threads.pinned")
+            .description("Virtual threads that blocked while pinned to their carrier")
+            .register(registry);
+    this.threshold = Duration.ofMillis(thresholdMillis);
+  }
+
+  @Override
+  public synchronized void start() {
+    stream = new RecordingStream();
+    stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(EVENT, this::record);
+    stream.startAsync();
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return stream != null;
+  }
+
+  private void record(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    if (event.getStackTrace() == null) {
+      return;
+    }
+    String stack =
+        event.getStackTrace().getFrames().stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .limit(LOGGED_FRAMES)
+            .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName())
+            .collect(Collectors.joining("\n  at "));
+    if (reportedSites.add(stack)) {
+      log.warn(
+          "Virtual thread pinned for {} ms; later pins from here are only counted\n  at {}",
+          event.getDuration().toMillis(),
+          stack);
+    }
+  }
+}
@@ -43,7 +43,9 @@ public class SecurityConfig {
             http.authorizeHttpRequests(
                             auth ->
                                     auth.requestMatchers("/api/health",
-                                                    "/dev")
+                                                    "/dev",
+                                                    "/actuator/health",
+                                                    "/actuator/prometheus")
                                             .permitAll()
                                             .requestMatchers(HttpMethod.GET,
                                                     "/api/**")
@@ -70,6 +72,10 @@ public class SecurityConfig {
                 "DELETE",
                 "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // the frontend sends list ETags back in If-None-Match
+        configuration.setExposedHeaders(List.of("ETag"));
+        // If-None-Match makes every revalidating read preflighted; let browsers keep the answer
+        configuration.setMaxAge(3600L);
         configuration.setAllowCredentials(false);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**",
@@ -0,0 +1,247 @@
+package com.nortal.library.api.config;
+
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.Member;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A generated catalog of {@code members} members and {@code books} books, the same for the same
+ * settings and seed. About {@code loanShare} of the books are on loan, never more than the borrow
+ * limit per member, due within the loan period or, for {@code overdueShare} of the loans, up to two
+ * months ago. Reservations go to loaned books by a Zipf distribution over a shuffled popularity
+ * rank, so a few books have long queues and most have none.
+ *
+ * <p>Planning is a single pass over compact arrays; the entities themselves are built per slice, so
+ * slices can be written in parallel without holding the whole catalog in memory.
+ */
+public final class SyntheticCatalog {
+
+  private static final int MAX_OVERDUE_DAYS = 60;
+  private static final String[] TITLE_ADJECTIVES = {
+    "Silent", "Hidden", "Broken", "Distant", "Golden", "Practical", "Modern", "Lost", "Northern",
+    "Quiet", "Final", "Elegant", "Effective", "Restless", "Clean", "Patient", "Concurrent", "Lazy"
+  };
+  private static final String[] TITLE_NOUNS = {
+    "River", "Garden", "Compiler", "Harbor", "Kingdom", "Algorithm", "Winter", "Library", "Forest",
+    "Protocol", "Lighthouse", "Archive", "Machine", "Island", "Design", "Pattern", "Signal", "Road"
+  };
+  private static final String[] FIRST_NAMES = {
+    "Kertu", "Rasmus", "Liis", "Markus", "Mari", "Karl", "Anna", "Jaan", "Laura", "Martin", "Eva",
+    "Andres", "Kadri", "Toomas", "Piret", "Mihkel", "Helen", "Siim", "Triin", "Peeter"
+  };
+  private static final String[] LAST_NAMES = {
+    "Tamm", "Saar", "Sepp", "Mägi", "Kask", "Kukk", "Rebane", "Ilves", "Pärn", "Koppel", "Lepik",
+    "Vaher", "Kuusk", "Oja", "Raud", "Lill", "Karu", "Kallas", "Mets", "Org"
+  };
+
+  public record Settings(
+      int members,
+      int books,
+      double loanShare,
+      double overdueShare,
+      int reservations,
+      double zipfExponent,
+      long seed) {
+
+    public Settings {
+      if (members < 1 || books < 1 || reservations < 0) {
+        throw new IllegalArgumentException(
+            "members and books must be positive, reservations not negative");
+      }
+    }
+  }
+
+  private final Settings settings;
+  private final LocalDate today;
+  private final String memberIdFormat;
+  private final String bookIdFormat;
+  // member index per book, -1 for books on the shelf
+  private final int[] holder;
+  // due date of each loan as days from today
+  private final short[] dueInDays;
+  private final byte[] activeLoans;
+  // member indexes per loaned book index, in queue order
+  private final Map<Integer, List<Integer>> queues;
+  private final int loans;
+  private final int overdue;
+  private final int queued;
+
+  private SyntheticCatalog(Settings settings, LocalDate today) {
+    this.settings = settings;
+    this.today = today;
+    this.memberIdFormat = "sm-%0" + digits(settings.members() - 1) + "d";
+    this.bookIdFormat = "sb-%0" + digits(settings.books() - 1) + "d";
+    this.holder = new int[settings.books()];
+    this.dueInDays = new short[settings.books()];
+    this.activeLoans = new byte[settings.members()];
+    SplittableRandom random = new SplittableRandom(settings.seed());
+
+    int[] loaned = new int[settings.books()];
+    int loanCount = 0;
+    int overdueCount = 0;
+    for (int b = 0; b < holder.length; b++) {
+      holder[b] = -1;
+      if (random.nextDouble() >= settings.loanShare()) {
+        continue;
+      }
+      int member = random.nextInt(settings.members());
+      if (activeLoans[member] >= LibraryService.MAX_LOANS) {
+        continue;
+      }
+      activeLoans[member]++;
+      holder[b] = member;
+      loaned[loanCount++] = b;
+      if (random.nextDouble() < settings.overdueShare()) {
+        dueInDays[b] = (short) -random.nextInt(1, MAX_OVERDUE_DAYS + 1);
+        overdueCount++;
+      } else {
+        dueInDays[b] = (short) random.nextInt(LibraryService.DEFAULT_LOAN_DAYS + 1);
+      }
+    }
+    this.loans = loanCount;
+    this.overdue = overdueCount;
+    this.queues = reservations(random, Arrays.copyOf(loaned, loanCount));
+    this.queued = queues.values().stream().mapToInt(List::size).sum();
+  }
+
+  public static SyntheticCatalog plan(Settings settings, LocalDate today) {
+    return new SyntheticCatalog(settings, today);
+  }
+
+  private Map<Integer, List<Integer>> reservations(SplittableRandom random, int[] loaned) {
+    Map<Integer, List<Integer>> result = new LinkedHashMap<>();
+    if (loaned.length == 0 || settings.reservations() == 0) {
+      return result;
+    }
+    // popularity rank -> book: a shuffle, so the long queues are not all on the lowest ids
+    for (int i = loaned.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = loaned[i];
+      loaned[i] = loaned[j];
+      loaned[j] = swap;
+    }
+    double[] cumulative = new double[loaned.length];
+    double total = 0;
+    for (int rank = 0; rank < loaned.length; rank++) {
+      total += 1 / Math.pow(rank + 1, settings.zipfExponent());
+      cumulative[rank] = total;
+    }
+    Set<Long> taken = new HashSet<>();
+    for (int r = 0; r < settings.reservations(); r++) {
+      int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+      int book = loaned[rank < 0 ? Math.min(-rank - 1, loaned.length - 1) : rank];
+      int member = random.nextInt(settings.members());
+      // a member is never queued for a book twice, nor for the one they hold
+      if (member != holder[book] && taken.add((long) book * settings.members() + member)) {
+        result.computeIfAbsent(book, b -> new ArrayList<>()).add(member);
+      }
+    }
+    return result;
+  }
+
+  public String memberId(int index) {
+    return memberIdFormat.formatted(index);
+  }
+
+  public String bookId(int index) {
+    return bookIdFormat.formatted(index);
+  }
+
+  /** Members {@code from} (inclusive) to {@code to} (exclusive), with their loan counters set. */
+  public List<Member> members(int from, int to) {
+    List<Member> members = new ArrayList<>(to - from);
+    for (int m = from; m < to; m++) {
+      SplittableRandom random = random(m);
+      Member member =
+          new Member(
+              memberId(m),
+              pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES) + " " + (m + 1));
+      member.setActiveLoans(activeLoans[m]);
+      members.add(member);
+    }
+    return members;
+  }
+
+  /** Books {@code from} (inclusive) to {@code to} (exclusive), loaned ones with their holder. */
+  public List<Book> books(int from, int to) {
+    List<Book> books = new ArrayList<>(to - from);
+    for (int b = from; b < to; b++) {
+      SplittableRandom random = random(~b);
+      String title =
+          "The " + pick(random, TITLE_ADJECTIVES) + " " + pick(random, TITLE_NOUNS) + " " + (b + 1);
+      Book book = new Book(bookId(b), title);
+      if (holder[b] >= 0) {
+        book.setLoanedTo(memberId(holder[b]));
+        book.setDueDate(today.plusDays(dueInDays[b]));
+      }
+      books.add(book);
+    }
+    return books;
+  }
+
+  /**
+   * Every queue, cut into slices of about {@code rows} reservations. A queue is never split, so
+   * slices written in any order still leave each queue in its planned order.
+   */
+  public List<Map<String, List<String>>> queueSlices(int rows) {
+    List<Map<String, List<String>>> slices = new ArrayList<>();
+    Map<String, List<String>> slice = new LinkedHashMap<>();
+    int size = 0;
+    for (Map.Entry<Integer, List<Integer>> queue : queues.entrySet()) {
+      slice.put(bookId(queue.getKey()), queue.getValue().stream().map(this::memberId).toList());
+      size += queue.getValue().size();
+      if (size >= rows) {
+        slices.add(slice);
+        slice = new LinkedHashMap<>();
+        size = 0;
+      }
+    }
+    if (!slice.isEmpty()) {
+      slices.add(slice);
+    }
+    return slices;
+  }
+
+  public Settings settings() {
+    return settings;
+  }
+
+  public int loans() {
+    return loans;
+  }
+
+  public int overdue() {
+    return overdue;
+  }
+
+  /** Reservations actually planned; repeats drawn for the same member and book are dropped. */
+  public int queued() {
+    return queued;
+  }
+
+  public int longestQueue() {
+    return queues.values().stream().mapToInt(List::size).max().orElse(0);
+  }
+
+  // names and titles depend only on the seed and the index, not on which slice builds them
+  private SplittableRandom random(int index) {
+    return new SplittableRandom(settings.seed() * 0x9E3779B97F4A7C15L + index);
+  }
+
+  private static String pick(SplittableRandom random, String[] words) {
+    return words[random.nextInt(words.length)];
+  }
+
+  private static int digits(int max) {
+    return Math.max(1, Integer.toString(max).length());
+  }
+}
@@ -0,0 +1,113 @@
+package com.nortal.library.api.config;
+
+import com.nortal.library.core.port.BookRepository;
+import com.nortal.library.core.port.MemberRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Replaces the fixed demo data under the {@code seed} profile with a {@link SyntheticCatalog} sized
+ * by {@code library.seed.*}. Slices of {@code batch-size} rows are written by {@code threads}
+ * workers, one transaction of batched inserts each: members and books first, then the reservation
+ * queues, which reference the books. An empty catalog is required; a database that already holds
+ * books is left alone.
+ */
+@Configuration
+@Profile("seed")
+public class SyntheticDataLoader {
+  private static final Logger log = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+  @Bean
+  CommandLineRunner seedSyntheticData(
+      BookRepository bookRepository,
+      MemberRepository memberRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.seed.members:100000}") int members,
+      @Value("${library.seed.books:1000000}") int books,
+      @Value("${library.seed.loan-share:0.3}") double loanShare,
+      @Value("${library.seed.overdue-share:0.2}") double overdueShare,
+      @Value("${library.seed.reservations:200000}") int reservations,
+      @Value("${library.seed.zipf-exponent:1.0}") double zipfExponent,
+      @Value("${library.seed.seed:42}") long seed,
+      @Value("${library.seed.threads:0}") int threads,
+      @Value("${library.seed.batch-size:1000}") int batchSize) {
+    return args -> {
+      if (!bookRepository.findPageAfter(null, 1).isEmpty()) {
+        log.info("Catalog is not empty, skipping the synthetic seed");
+        return;
+      }
+      long started = System.nanoTime();
+      SyntheticCatalog catalog =
+          SyntheticCatalog.plan(
+              new SyntheticCatalog.Settings(
+                  members, books, loanShare, overdueShare, reservations, zipfExponent, seed),
+              LocalDate.now());
+      TransactionTemplate tx = new TransactionTemplate(transactionManager);
+      int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+      try (ExecutorService pool = Executors.newFixedThreadPool(workers)) {
+        List<Runnable> slices = new ArrayList<>();
+        for (int from = 0; from < members; from += batchSize) {
+          int start = from;
+          int end = Math.min(from + batchSize, members);
+          slices.add(() -> memberRepository.insertAll(catalog.members(start, end)));
+        }
+        for (int from = 0; from < books; from += batchSize) {
+          int start = from;
+          int end = Math.min(from + batchSize, books);
+          slices.add(() -> bookRepository.insertAll(catalog.books(start, end)));
+        }
+        runAll(pool, tx, slices);
+        runAll(
+            pool,
+            tx,
+            catalog.queueSlices(batchSize).stream()
+                .<Runnable>map(queues -> () -> bookRepository.enqueueAll(queues))
+                .toList());
+      }
+      long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+      long rows = (long) members + books + catalog.queued();
+      log.info(
+          "Seeded {} members, {} books ({} on loan, {} overdue) and {} reservations"
+              + " (longest queue {}) from seed {} in {} ms, {} rows/s",
+          members,
+          books,
+          catalog.loans(),
+          catalog.overdue(),
+          catalog.queued(),
+          catalog.longestQueue(),
+          seed,
+          millis,
+          rows * 1000 / millis);
+    };
+  }
+
+  private static void runAll(ExecutorService pool, TransactionTemplate tx, List<Runnable> slices)
+      throws InterruptedException {
+    List<Future<?>> pending = new ArrayList<>(slices.size());
+    for (Runnable slice : slices) {
+      pending.add(pool.submit(() -> tx.executeWithoutResult(status -> slice.run())));
+    }
+    for (Future<?> future : pending) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        pending.forEach(f -> f.cancel(true));
+        throw new IllegalStateException("synthetic seed failed", e.getCause());
+      }
+    }
+  }
+}
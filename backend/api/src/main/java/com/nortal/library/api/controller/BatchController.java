@@ -0,0 +1,60 @@
+package com.nortal.library.api.controller;
+
+import com.nortal.library.api.config.BatchProperties;
+import com.nortal.library.api.dto.BatchCommandRequest;
+import com.nortal.library.api.dto.BatchRequest;
+import com.nortal.library.api.dto.BatchResponse;
+import com.nortal.library.core.LibraryService;
+import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Ordered borrow/return/reserve/cancel commands from kiosks and sorting machines. Each chunk of
+ * {@code library.batch.chunk-size} commands is one transaction; a later chunk still runs if an
+ * earlier one failed to commit.
+ */
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+  private final LibraryService libraryService;
+  private final int chunkSize;
+  private final int maxCommands;
+
+  public BatchController(LibraryService libraryService, BatchProperties properties) {
+    this.libraryService = libraryService;
+    this.chunkSize = properties.chunkSize();
+    this.maxCommands = properties.maxCommands();
+  }
+
+  @PostMapping
+  public BatchResponse run(@RequestBody @Valid BatchRequest request) {
+    List<BatchCommandRequest> commands = request.commands();
+    if (commands.size() > maxCommands) {
+      throw new IllegalArgumentException("TOO_MANY_COMMANDS");
+    }
+
+    List<BatchResponse.BatchResultResponse> results = new ArrayList<>(commands.size());
+    for (int from = 0; from < commands.size(); from += chunkSize) {
+      List<LibraryService.BatchCommand> chunk =
+          commands.subList(from, Math.min(from + chunkSize, commands.size())).stream()
+              .map(c -> new LibraryService.BatchCommand(c.operation(), c.bookId(), c.memberId()))
+              .toList();
+      try {
+        libraryService.runBatch(chunk).stream()
+            .map(o -> new BatchResponse.BatchResultResponse(o.ok(), o.reason(), o.nextMemberId()))
+            .forEach(results::add);
+      } catch (RuntimeException e) {
+        // the chunk rolled back as a whole, so none of its commands took effect
+        chunk.forEach(
+            c -> results.add(new BatchResponse.BatchResultResponse(false, "ERROR", null)));
+      }
+    }
+    return new BatchResponse(results);
+  }
+}
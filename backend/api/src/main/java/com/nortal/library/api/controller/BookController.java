@@ -7,8 +7,12 @@ import com.nortal.library.api.dto.DeleteBookRequest;
 import com.nortal.library.api.dto.ResultResponse;
 import com.nortal.library.api.dto.UpdateBookRequest;
 import com.nortal.library.core.LibraryService;
-import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.version.Catalog;
 import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,20 +21,39 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
   private final LibraryService libraryService;
+  private final CatalogETags etags;
+  private final int maxPageSize;
 
-  public BookController(LibraryService libraryService) {
+  public BookController(
+      LibraryService libraryService,
+      CatalogETags etags,
+      @Value("${library.paging.max-limit:500}") int maxPageSize) {
     this.libraryService = libraryService;
+    this.etags = etags;
+    this.maxPageSize = maxPageSize;
   }
 
   @GetMapping
-  public BooksResponse list() {
-    return new BooksResponse(libraryService.allBooks().stream().map(this::toResponse).toList());
+  public BooksResponse list(
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      WebRequest request) {
+    if (etags.notModified(request, "books", Catalog.BOOKS)) {
+      return null;
+    }
+    if (limit == null) {
+      return new BooksResponse(toResponses(libraryService.allBooks()));
+    }
+    LibraryService.Page<BookView> page =
+        libraryService.books(cursor, PageLimits.clamp(limit, maxPageSize));
+    return new BooksResponse(toResponses(page.items()), page.nextCursor());
   }
 
   @GetMapping("/search")
@@ -39,9 +62,7 @@ public class BookController {
       @RequestParam(value = "available", required = false) Boolean available,
       @RequestParam(value = "loanedTo", required = false) String loanedTo) {
     return new BooksResponse(
-        libraryService.searchBooks(titleContains, available, loanedTo).stream()
-            .map(this::toResponse)
-            .toList());
+        toResponses(libraryService.searchBooks(titleContains, available, loanedTo)));
   }
 
   @PostMapping
@@ -62,12 +83,19 @@ public class BookController {
     return new ResultResponse(result.ok(), result.reason());
   }
 
-  private BookResponse toResponse(Book book) {
-    return new BookResponse(
-        book.getId(),
-        book.getTitle(),
-        book.getLoanedTo(),
-        book.getDueDate(),
-        book.getReservationQueue());
+  // queues of the whole list come from one lookup rather than one per book
+  private List<BookResponse> toResponses(List<BookView> books) {
+    Map<String, List<String>> queues =
+        libraryService.reservationQueues(books.stream().map(BookView::id).toList());
+    return books.stream()
+        .map(
+            book ->
+                new BookResponse(
+                    book.id(),
+                    book.title(),
+                    book.loanedTo(),
+                    book.dueDate(),
+                    queues.get(book.id())))
+        .toList();
   }
 }
@@ -0,0 +1,47 @@
+package com.nortal.library.api.controller;
+
+import com.nortal.library.core.version.Catalog;
+import com.nortal.library.core.version.CatalogVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong ETags for reads that depend only on catalog state: the representation's scope, the process
+ * epoch and the version of each catalog it reads. The version is taken before the query, so a
+ * change that commits during the query only makes the next request fetch again.
+ *
+ * <p>Left off while reads may come from a lagging replica, which could pair an up-to-date version
+ * with rows the replica has not caught up on.
+ */
+@Component
+class CatalogETags {
+
+  private final CatalogVersions versions;
+  private final boolean enabled;
+
+  CatalogETags(
+      CatalogVersions versions, @Value("${library.replica.enabled:false}") boolean replicaReads) {
+    this.versions = versions;
+    this.enabled = !replicaReads;
+  }
+
+  /**
+   * Sets the ETag for {@code scope} over {@code catalogs} and returns true when the request's
+   * {@code If-None-Match} already has it; the response is then a 304 and the read can be skipped.
+   */
+  boolean notModified(WebRequest request, String scope, Catalog... catalogs) {
+    if (!enabled) {
+      return false;
+    }
+    StringBuilder tag =
+        new StringBuilder("\"")
+            .append(scope)
+            .append('-')
+            .append(Long.toHexString(versions.epoch()));
+    for (Catalog catalog : catalogs) {
+      tag.append('-').append(versions.version(catalog));
+    }
+    return request.checkNotModified(tag.append('"').toString());
+  }
+}
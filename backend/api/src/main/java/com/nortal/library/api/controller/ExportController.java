@@ -0,0 +1,96 @@
+package com.nortal.library.api.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nortal.library.api.dto.BookResponse;
+import com.nortal.library.api.dto.MemberResponse;
+import com.nortal.library.core.LibraryService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/** Newline-delimited JSON exports that write rows as they come off the database cursor. */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+  static final String NDJSON_VALUE = "application/x-ndjson";
+  static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+  private static final int FLUSH_EVERY = 1_000;
+
+  private final LibraryService libraryService;
+  private final ObjectMapper objectMapper;
+
+  public ExportController(LibraryService libraryService, ObjectMapper objectMapper) {
+    this.libraryService = libraryService;
+    this.objectMapper = objectMapper;
+  }
+
+  @GetMapping("/books")
+  public ResponseEntity<StreamingResponseBody> books() {
+    return ndjson(
+        generator -> {
+          Consumer<BookResponse> out = lines(generator, Function.identity());
+          libraryService.exportBooks(
+              (book, queue) ->
+                  out.accept(
+                      new BookResponse(
+                          book.getId(),
+                          book.getTitle(),
+                          book.getLoanedTo(),
+                          book.getDueDate(),
+                          queue)));
+        });
+  }
+
+  @GetMapping("/members")
+  public ResponseEntity<StreamingResponseBody> members() {
+    return ndjson(
+        generator ->
+            libraryService.exportMembers(
+                lines(generator, member -> new MemberResponse(member.getId(), member.getName()))));
+  }
+
+  private ResponseEntity<StreamingResponseBody> ndjson(ExportBody body) {
+    StreamingResponseBody stream =
+        out -> {
+          try (JsonGenerator generator =
+              objectMapper
+                  .getFactory()
+                  .createGenerator(out)
+                  .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            body.write(generator);
+          } catch (UncheckedIOException e) {
+            throw e.getCause();
+          }
+        };
+    return ResponseEntity.ok().contentType(NDJSON).body(stream);
+  }
+
+  private <T> Consumer<T> lines(JsonGenerator generator, Function<T, ?> mapper) {
+    int[] written = {0};
+    return row -> {
+      try {
+        generator.writeObject(mapper.apply(row));
+        generator.writeRaw('\n');
+        if (++written[0] % FLUSH_EVERY == 0) {
+          generator.flush();
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface ExportBody {
+    void write(JsonGenerator generator) throws IOException;
+  }
+}
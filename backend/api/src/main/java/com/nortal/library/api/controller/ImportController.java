@@ -0,0 +1,177 @@
+package com.nortal.library.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nortal.library.api.config.ImportProperties;
+import com.nortal.library.api.dto.ImportResponse;
+import com.nortal.library.api.dto.ImportResponse.RejectedRowResponse;
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.Member;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Bulk loading of books and members from CSV, with an {@code id,title} or {@code id,name} header,
+ * or from NDJSON. The body is read line by line as it arrives and every {@code
+ * library.import.batch-size} rows are inserted as one transaction of batched statements. A row that
+ * cannot be imported is reported with its line number and skipped; the rest of the file still
+ * loads.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+  static final String CSV = "text/csv";
+  private static final int MAX_REPORTED_REJECTIONS = 1_000;
+
+  private final LibraryService libraryService;
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+
+  public ImportController(
+      LibraryService libraryService, ObjectMapper objectMapper, ImportProperties properties) {
+    this.libraryService = libraryService;
+    this.objectMapper = objectMapper;
+    this.batchSize = properties.batchSize();
+  }
+
+  @PostMapping(
+      value = "/books",
+      consumes = {CSV, ExportController.NDJSON_VALUE})
+  public ImportResponse books(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+      throws IOException {
+    return run(body, rows(contentType, "title"), Book::new, libraryService::importBooks);
+  }
+
+  @PostMapping(
+      value = "/members",
+      consumes = {CSV, ExportController.NDJSON_VALUE})
+  public ImportResponse members(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+      throws IOException {
+    return run(body, rows(contentType, "name"), Member::new, libraryService::importMembers);
+  }
+
+  private ImportRows rows(MediaType contentType, String textField) {
+    return MediaType.parseMediaType(CSV).isCompatibleWith(contentType)
+        ? ImportRows.csv(textField)
+        : ImportRows.ndjson(objectMapper, textField);
+  }
+
+  private <T> ImportResponse run(
+      InputStream body,
+      ImportRows rows,
+      BiFunction<String, String, T> factory,
+      Function<List<T>, List<String>> importer)
+      throws IOException {
+    long started = System.nanoTime();
+    Progress<T> progress = new Progress<>(factory, importer);
+    BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    long lineNumber = 0;
+    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+      lineNumber++;
+      if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+        line = line.substring(1);
+      }
+      if (line.isBlank()) {
+        continue;
+      }
+      if (rows.expectsHeader()) {
+        rows.header(line);
+        continue;
+      }
+      String[] row = rows.parse(line);
+      if (row == null) {
+        progress.reject(lineNumber, null, "MALFORMED");
+        continue;
+      }
+      progress.pending.add(new Row(lineNumber, row[0], row[1]));
+      if (progress.pending.size() == batchSize) {
+        progress.flush();
+      }
+    }
+    progress.flush();
+
+    long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+    long rowsSeen = progress.imported + progress.rejected;
+    return new ImportResponse(
+        true,
+        progress.imported,
+        progress.rejected,
+        millis,
+        rowsSeen * 1000.0 / millis,
+        progress.rejections);
+  }
+
+  private record Row(long line, String id, String text) {}
+
+  private static final class Progress<T> {
+    private final BiFunction<String, String, T> factory;
+    private final Function<List<T>, List<String>> importer;
+    private final List<Row> pending = new ArrayList<>();
+    private final List<RejectedRowResponse> rejections = new ArrayList<>();
+    private long imported;
+    private long rejected;
+
+    Progress(BiFunction<String, String, T> factory, Function<List<T>, List<String>> importer) {
+      this.factory = factory;
+      this.importer = importer;
+    }
+
+    void flush() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      List<String> reasons;
+      try {
+        reasons = importer.apply(pending.stream().map(this::entity).toList());
+      } catch (RuntimeException e) {
+        // the batch rolled back, e.g. on an id inserted concurrently; retry its rows one by one
+        reasons = pending.stream().map(this::importAlone).toList();
+      }
+      for (int i = 0; i < pending.size(); i++) {
+        Row row = pending.get(i);
+        if (reasons.get(i) == null) {
+          imported++;
+        } else {
+          reject(row.line(), row.id(), reasons.get(i));
+        }
+      }
+      pending.clear();
+    }
+
+    private String importAlone(Row row) {
+      try {
+        return importer.apply(List.of(entity(row))).get(0);
+      } catch (RuntimeException e) {
+        return "ERROR";
+      }
+    }
+
+    // a fresh entity per attempt, since a rolled-back persist leaves its state behind
+    private T entity(Row row) {
+      return factory.apply(row.id(), row.text());
+    }
+
+    void reject(long line, String id, String reason) {
+      rejected++;
+      if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+        rejections.add(new RejectedRowResponse(line, id, reason));
+      }
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.nortal.library.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns one line of an import file into an id and its text (a book's title, a member's name). A
+ * field that is absent comes back null and is rejected by the service; a line that cannot be read
+ * at all comes back as null.
+ */
+abstract class ImportRows {
+
+  /** The first non-blank line of a CSV file names the columns; NDJSON has no header. */
+  abstract boolean expectsHeader();
+
+  abstract void header(String line);
+
+  /** {@code {id, text}}, or null when the line is malformed. */
+  abstract String[] parse(String line);
+
+  static ImportRows csv(String textColumn) {
+    return new Csv(textColumn);
+  }
+
+  static ImportRows ndjson(ObjectMapper objectMapper, String textField) {
+    return new Ndjson(objectMapper, textField);
+  }
+
+  private static final class Csv extends ImportRows {
+    private final String textColumn;
+    private int idIndex = -1;
+    private int textIndex = -1;
+
+    Csv(String textColumn) {
+      this.textColumn = textColumn;
+    }
+
+    @Override
+    boolean expectsHeader() {
+      return idIndex < 0;
+    }
+
+    @Override
+    void header(String line) {
+      List<String> columns = fields(line);
+      for (int i = 0; columns != null && i < columns.size(); i++) {
+        String column = columns.get(i).toLowerCase(Locale.ROOT);
+        if (column.equals("id")) {
+          idIndex = i;
+        } else if (column.equals(textColumn)) {
+          textIndex = i;
+        }
+      }
+      if (idIndex < 0 || textIndex < 0) {
+        throw new IllegalArgumentException("CSV header must name the id and " + textColumn);
+      }
+    }
+
+    @Override
+    String[] parse(String line) {
+      List<String> fields = fields(line);
+      if (fields == null || fields.size() <= Math.max(idIndex, textIndex)) {
+        return null;
+      }
+      return new String[] {emptyToNull(fields.get(idIndex)), emptyToNull(fields.get(textIndex))};
+    }
+
+    /**
+     * Comma-separated, a field may be wrapped in quotes with "" for a quote; null if one is open.
+     */
+    private static List<String> fields(String line) {
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < line.length(); i++) {
+        char c = line.charAt(i);
+        if (quoted) {
+          if (c != '"') {
+            field.append(c);
+          } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+            field.append('"');
+            i++;
+          } else {
+            quoted = false;
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString().strip());
+          field.setLength(0);
+        } else {
+          field.append(c);
+        }
+      }
+      if (quoted) {
+        return null;
+      }
+      fields.add(field.toString().strip());
+      return fields;
+    }
+
+    private static String emptyToNull(String value) {
+      return value.isEmpty() ? null : value;
+    }
+  }
+
+  private static final class Ndjson extends ImportRows {
+    private final ObjectMapper objectMapper;
+    private final String textField;
+
+    Ndjson(ObjectMapper objectMapper, String textField) {
+      this.objectMapper = objectMapper;
+      this.textField = textField;
+    }
+
+    @Override
+    boolean expectsHeader() {
+      return false;
+    }
+
+    @Override
+    void header(String line) {}
+
+    @Override
+    String[] parse(String line) {
+      JsonNode node;
+      try {
+        node = objectMapper.readTree(line);
+      } catch (JsonProcessingException e) {
+        return null;
+      }
+      if (!node.isObject()) {
+        return null;
+      }
+      return new String[] {text(node.get("id")), text(node.get(textField))};
+    }
+
+    private static String text(JsonNode value) {
+      return value == null || value.isNull() ? null : value.asText();
+    }
+  }
+}
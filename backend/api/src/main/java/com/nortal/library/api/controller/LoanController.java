@@ -5,44 +5,81 @@ import com.nortal.library.api.dto.BooksResponse;
 import com.nortal.library.api.dto.BorrowRequest;
 import com.nortal.library.api.dto.CancelReservationRequest;
 import com.nortal.library.api.dto.LoanExtensionRequest;
+import com.nortal.library.api.dto.ReconcileResponse;
 import com.nortal.library.api.dto.ReserveRequest;
 import com.nortal.library.api.dto.ResultResponse;
 import com.nortal.library.api.dto.ResultWithNextResponse;
 import com.nortal.library.api.dto.ReturnRequest;
+import com.nortal.library.api.replica.ReadYourWrites;
 import com.nortal.library.core.LibraryService;
-import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.LibraryService.BatchCommand;
+import com.nortal.library.core.LibraryService.BatchOutcome;
+import com.nortal.library.core.LibraryService.Operation;
+import com.nortal.library.core.commit.GroupCommitExecutor;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.version.Catalog;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api")
 public class LoanController {
 
   private final LibraryService libraryService;
+  // null unless library.group-commit.enabled
+  private final GroupCommitExecutor groupCommit;
+  // null unless library.replica.enabled
+  private final ReadYourWrites readYourWrites;
+  private final CatalogETags etags;
+  private final int maxPageSize;
 
-  public LoanController(LibraryService libraryService) {
+  public LoanController(
+      LibraryService libraryService,
+      ObjectProvider<GroupCommitExecutor> groupCommit,
+      ObjectProvider<ReadYourWrites> readYourWrites,
+      CatalogETags etags,
+      @Value("${library.paging.max-limit:500}") int maxPageSize) {
     this.libraryService = libraryService;
+    this.groupCommit = groupCommit.getIfAvailable();
+    this.readYourWrites = readYourWrites.getIfAvailable();
+    this.etags = etags;
+    this.maxPageSize = maxPageSize;
   }
 
   @PostMapping("/borrow")
   public ResultResponse borrow(@RequestBody @Valid BorrowRequest request) {
+    if (groupCommit != null) {
+      return grouped(Operation.BORROW, request.bookId(), request.memberId());
+    }
     LibraryService.Result result = libraryService.borrowBook(request.bookId(), request.memberId());
     return new ResultResponse(result.ok(), result.reason());
   }
 
   @PostMapping("/reserve")
   public ResultResponse reserve(@RequestBody @Valid ReserveRequest request) {
+    if (groupCommit != null) {
+      return grouped(Operation.RESERVE, request.bookId(), request.memberId());
+    }
     LibraryService.Result result = libraryService.reserveBook(request.bookId(), request.memberId());
     return new ResultResponse(result.ok(), result.reason());
   }
 
   @PostMapping("/cancel-reservation")
   public ResultResponse cancelReservation(@RequestBody @Valid CancelReservationRequest request) {
+    if (groupCommit != null) {
+      return grouped(Operation.CANCEL, request.bookId(), request.memberId());
+    }
     LibraryService.Result result =
         libraryService.cancelReservation(request.bookId(), request.memberId());
     return new ResultResponse(result.ok(), result.reason());
@@ -50,29 +87,73 @@ public class LoanController {
 
   @PostMapping("/return")
   public ResultWithNextResponse returnBook(@RequestBody @Valid ReturnRequest request) {
+    if (groupCommit != null) {
+      BatchOutcome outcome =
+          groupCommit.execute(
+              new BatchCommand(Operation.RETURN, request.bookId(), request.memberId()));
+      groupedWriteCommitted();
+      return new ResultWithNextResponse(outcome.ok(), outcome.nextMemberId());
+    }
     LibraryService.ResultWithNext result =
         libraryService.returnBook(request.bookId(), request.memberId());
     return new ResultWithNextResponse(result.ok(), result.nextMemberId());
   }
 
+  private ResultResponse grouped(Operation operation, String bookId, String memberId) {
+    BatchOutcome outcome = groupCommit.execute(new BatchCommand(operation, bookId, memberId));
+    groupedWriteCommitted();
+    return new ResultResponse(outcome.ok(), outcome.reason());
+  }
+
+  // the committer thread records the batch's members but has no caller; the caller is on this one
+  private void groupedWriteCommitted() {
+    if (readYourWrites != null) {
+      readYourWrites.callerWrote();
+    }
+  }
+
   @PostMapping("/extend")
   public ResultResponse extend(@RequestBody @Valid LoanExtensionRequest request) {
     LibraryService.Result result = libraryService.extendLoan(request.bookId(), request.days());
     return new ResultResponse(result.ok(), result.reason());
   }
 
+  @PostMapping("/reconcile-loans")
+  public ReconcileResponse reconcileLoans() {
+    return new ReconcileResponse(true, libraryService.reconcileLoanCounters());
+  }
+
   @GetMapping("/overdue")
-  public BooksResponse overdue() {
-    return new BooksResponse(
-        libraryService.overdueBooks(LocalDate.now()).stream().map(this::toResponse).toList());
+  public BooksResponse overdue(
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      WebRequest request) {
+    // which books are overdue also changes with the date
+    LocalDate today = LocalDate.now();
+    if (etags.notModified(request, "overdue-" + today, Catalog.BOOKS)) {
+      return null;
+    }
+    if (limit == null) {
+      return new BooksResponse(toResponses(libraryService.overdueBooks(today)));
+    }
+    LibraryService.Page<BookView> page =
+        libraryService.overdueBooks(today, cursor, PageLimits.clamp(limit, maxPageSize));
+    return new BooksResponse(toResponses(page.items()), page.nextCursor());
   }
 
-  private BookResponse toResponse(Book book) {
-    return new BookResponse(
-        book.getId(),
-        book.getTitle(),
-        book.getLoanedTo(),
-        book.getDueDate(),
-        book.getReservationQueue());
+  // queues of the whole list come from one lookup rather than one per book
+  private List<BookResponse> toResponses(List<BookView> books) {
+    Map<String, List<String>> queues =
+        libraryService.reservationQueues(books.stream().map(BookView::id).toList());
+    return books.stream()
+        .map(
+            book ->
+                new BookResponse(
+                    book.id(),
+                    book.title(),
+                    book.loanedTo(),
+                    book.dueDate(),
+                    queues.get(book.id())))
+        .toList();
   }
 }
@@ -8,8 +8,11 @@ import com.nortal.library.api.dto.MembersResponse;
 import com.nortal.library.api.dto.ResultResponse;
 import com.nortal.library.api.dto.UpdateMemberRequest;
 import com.nortal.library.core.LibraryService;
-import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
+import com.nortal.library.core.version.Catalog;
 import jakarta.validation.Valid;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,25 +20,52 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/members")
 public class MemberController {
 
   private final LibraryService libraryService;
+  private final CatalogETags etags;
+  private final int maxPageSize;
 
-  public MemberController(LibraryService libraryService) {
+  public MemberController(
+      LibraryService libraryService,
+      CatalogETags etags,
+      @Value("${library.paging.max-limit:500}") int maxPageSize) {
     this.libraryService = libraryService;
+    this.etags = etags;
+    this.maxPageSize = maxPageSize;
   }
 
   @GetMapping
-  public MembersResponse list() {
-    return new MembersResponse(libraryService.allMembers().stream().map(this::toResponse).toList());
+  public MembersResponse list(
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      WebRequest request) {
+    if (etags.notModified(request, "members", Catalog.MEMBERS)) {
+      return null;
+    }
+    if (limit == null) {
+      return new MembersResponse(
+          libraryService.allMembers().stream().map(this::toResponse).toList());
+    }
+    LibraryService.Page<MemberView> page =
+        libraryService.members(cursor, PageLimits.clamp(limit, maxPageSize));
+    return new MembersResponse(
+        page.items().stream().map(this::toResponse).toList(), page.nextCursor());
   }
 
   @GetMapping("/{memberId}/summary")
-  public MemberSummaryResponse summary(@PathVariable("memberId") String memberId) {
+  public MemberSummaryResponse summary(
+      @PathVariable("memberId") String memberId, WebRequest request) {
+    // loans and reservations are book state
+    if (etags.notModified(request, "summary", Catalog.MEMBERS, Catalog.BOOKS)) {
+      return null;
+    }
     LibraryService.MemberSummary summary = libraryService.memberSummary(memberId);
     if (!summary.ok()) {
       return MemberSummaryResponse.failure(summary.reason());
@@ -48,18 +78,19 @@ public class MemberController {
                     new MemberSummaryResponse.BookLoanSummary(
                         book.getId(), book.getTitle(), book.getDueDate()))
             .toList();
+    Map<String, String> titles =
+        libraryService.bookTitles(
+            summary.reservations().stream()
+                .map(LibraryService.ReservationPosition::bookId)
+                .toList());
     var reservations =
         summary.reservations().stream()
             .map(
-                reservation -> {
-                  String title =
-                      libraryService
-                          .findBook(reservation.bookId())
-                          .map(com.nortal.library.core.domain.Book::getTitle)
-                          .orElse(null);
-                  return new MemberSummaryResponse.ReservationSummary(
-                      reservation.bookId(), title, reservation.position());
-                })
+                reservation ->
+                    new MemberSummaryResponse.ReservationSummary(
+                        reservation.bookId(),
+                        titles.get(reservation.bookId()),
+                        reservation.position()))
             .toList();
     return MemberSummaryResponse.success(loans, reservations);
   }
@@ -82,7 +113,7 @@ public class MemberController {
     return new ResultResponse(result.ok(), result.reason());
   }
 
-  private MemberResponse toResponse(Member member) {
-    return new MemberResponse(member.getId(), member.getName());
+  private MemberResponse toResponse(MemberView member) {
+    return new MemberResponse(member.id(), member.name());
   }
 }
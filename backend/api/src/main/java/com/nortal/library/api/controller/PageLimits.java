@@ -0,0 +1,14 @@
+package com.nortal.library.api.controller;
+
+final class PageLimits {
+
+  private PageLimits() {}
+
+  /** Rejects non-positive limits and caps the rest at the configured maximum page size. */
+  static int clamp(int requested, int max) {
+    if (requested < 1) {
+      throw new IllegalArgumentException("INVALID_LIMIT");
+    }
+    return Math.min(requested, max);
+  }
+}
@@ -1,8 +1,16 @@
 package com.nortal.library.api.controller;
 
 import com.nortal.library.api.dto.ResultResponse;
+import java.sql.SQLTransientConnectionException;
+import java.util.Locale;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -10,12 +18,58 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class RestExceptionHandler {
 
+  private static final String RESERVATION_CONSTRAINT = "UQ_BOOK_RESERVATIONS_BOOK_MEMBER";
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ResultResponse> handleValidation() {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
         .body(new ResultResponse(false, "INVALID_REQUEST"));
   }
 
+  @ExceptionHandler(HttpMessageNotReadableException.class)
+  public ResponseEntity<ResultResponse> handleUnreadable() {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(new ResultResponse(false, "INVALID_REQUEST"));
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<ResultResponse> handleIllegalArgument() {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(new ResultResponse(false, "INVALID_REQUEST"));
+  }
+
+  // only reached once the retry attempts are used up
+  @ExceptionHandler(ConcurrencyFailureException.class)
+  public ResponseEntity<ResultResponse> handleConflict() {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(new ResultResponse(false, "CONFLICT"));
+  }
+
+  // a second queue entry for the same member that slipped past the isQueued check
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity<ResultResponse> handleIntegrity(DataIntegrityViolationException e) {
+    String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    if (message != null && message.toUpperCase(Locale.ROOT).contains(RESERVATION_CONSTRAINT)) {
+      return ResponseEntity.ok(new ResultResponse(false, "ALREADY_RESERVED"));
+    }
+    return handleGeneric();
+  }
+
+  // BUSY only when no pooled connection came within spring.datasource.hikari.connection-timeout;
+  // a database that is down or broken is still an error
+  @ExceptionHandler({
+    CannotCreateTransactionException.class,
+    DataAccessResourceFailureException.class
+  })
+  public ResponseEntity<ResultResponse> handleBusy(Exception e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLTransientConnectionException) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(new ResultResponse(false, "BUSY"));
+      }
+    }
+    return handleGeneric();
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ResultResponse> handleGeneric() {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
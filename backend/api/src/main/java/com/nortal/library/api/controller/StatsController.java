@@ -0,0 +1,74 @@
+package com.nortal.library.api.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nortal.library.api.dto.CacheStatsResponse;
+import com.nortal.library.api.dto.LockStatsResponse;
+import com.nortal.library.api.dto.LockStatsResponse.StripeStatsResponse;
+import com.nortal.library.core.lock.StripedLockManager;
+import com.nortal.library.core.lock.StripedLockManager.StripeStats;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+  private final CacheManager cacheManager;
+  private final StripedLockManager lockManager;
+
+  public StatsController(CacheManager cacheManager, StripedLockManager lockManager) {
+    this.cacheManager = cacheManager;
+    this.lockManager = lockManager;
+  }
+
+  @GetMapping("/caches")
+  public Map<String, CacheStatsResponse> caches() {
+    Map<String, CacheStatsResponse> result = new TreeMap<>();
+    for (String name : cacheManager.getCacheNames()) {
+      Cache cache = cacheManager.getCache(name);
+      if (cache instanceof TransactionAwareCacheDecorator decorator) {
+        cache = decorator.getTargetCache();
+      }
+      if (cache instanceof CaffeineCache caffeine) {
+        CacheStats stats = caffeine.getNativeCache().stats();
+        result.put(
+            name,
+            new CacheStatsResponse(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                caffeine.getNativeCache().estimatedSize()));
+      }
+    }
+    return result;
+  }
+
+  /** Book lock stripes that have been used, most total wait first. */
+  @GetMapping("/locks")
+  public LockStatsResponse locks() {
+    List<StripeStatsResponse> active =
+        lockManager.stats().stream()
+            .sorted(Comparator.comparingLong(StripeStats::totalWaitNanos).reversed())
+            .map(
+                s ->
+                    new StripeStatsResponse(
+                        s.stripe(),
+                        s.acquisitions(),
+                        s.contended(),
+                        s.contended() == 0 ? 0 : s.totalWaitNanos() / 1_000.0 / s.contended(),
+                        s.maxWaitNanos() / 1_000,
+                        s.queued()))
+            .toList();
+    return new LockStatsResponse(lockManager.stripeCount(), active);
+  }
+}
@@ -0,0 +1,8 @@
+package com.nortal.library.api.dto;
+
+import com.nortal.library.core.LibraryService;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record BatchCommandRequest(
+    @NotNull LibraryService.Operation operation, @NotBlank String bookId, String memberId) {}
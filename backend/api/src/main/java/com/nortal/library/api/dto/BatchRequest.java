@@ -0,0 +1,7 @@
+package com.nortal.library.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record BatchRequest(@NotEmpty List<@Valid BatchCommandRequest> commands) {}
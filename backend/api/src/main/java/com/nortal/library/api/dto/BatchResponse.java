@@ -0,0 +1,8 @@
+package com.nortal.library.api.dto;
+
+import java.util.List;
+
+public record BatchResponse(List<BatchResultResponse> results) {
+
+  public record BatchResultResponse(boolean ok, String reason, String nextMemberId) {}
+}
@@ -2,4 +2,9 @@ package com.nortal.library.api.dto;
 
 import java.util.List;
 
-public record BooksResponse(List<BookResponse> items) {}
+public record BooksResponse(List<BookResponse> items, String nextCursor) {
+
+  public BooksResponse(List<BookResponse> items) {
+    this(items, null);
+  }
+}
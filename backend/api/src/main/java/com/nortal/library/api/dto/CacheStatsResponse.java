@@ -0,0 +1,4 @@
+package com.nortal.library.api.dto;
+
+public record CacheStatsResponse(
+    long hits, long misses, double hitRate, long evictions, long estimatedSize) {}
@@ -0,0 +1,15 @@
+package com.nortal.library.api.dto;
+
+import java.util.List;
+
+public record ImportResponse(
+    boolean ok,
+    long imported,
+    long rejected,
+    long millis,
+    double rowsPerSecond,
+    List<RejectedRowResponse> rejections) {
+
+  /** {@code line} is 1-based and counts the CSV header; {@code id} is null when none was read. */
+  public record RejectedRowResponse(long line, String id, String reason) {}
+}
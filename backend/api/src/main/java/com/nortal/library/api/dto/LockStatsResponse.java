@@ -0,0 +1,14 @@
+package com.nortal.library.api.dto;
+
+import java.util.List;
+
+public record LockStatsResponse(int stripes, List<StripeStatsResponse> active) {
+
+  public record StripeStatsResponse(
+      int stripe,
+      long acquisitions,
+      long contended,
+      double avgWaitMicros,
+      long maxWaitMicros,
+      int queued) {}
+}
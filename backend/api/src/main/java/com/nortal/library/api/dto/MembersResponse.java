@@ -2,4 +2,9 @@ package com.nortal.library.api.dto;
 
 import java.util.List;
 
-public record MembersResponse(List<MemberResponse> items) {}
+public record MembersResponse(List<MemberResponse> items, String nextCursor) {
+
+  public MembersResponse(List<MemberResponse> items) {
+    this(items, null);
+  }
+}
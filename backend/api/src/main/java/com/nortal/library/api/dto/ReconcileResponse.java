@@ -0,0 +1,3 @@
+package com.nortal.library.api.dto;
+
+public record ReconcileResponse(boolean ok, int drifted) {}
@@ -0,0 +1,103 @@
+package com.nortal.library.api.replica;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * Remembers, per member, the heartbeat position the replica must reach before it shows that
+ * member's latest write. Until it does, reads on behalf of the member go to the primary; everyone
+ * else may still be served the slightly older replica copy.
+ *
+ * <p>A read is on behalf of the member the operation names, or else the authenticated caller.
+ */
+public class ReadYourWrites {
+
+  private final ReplicaHeartbeat heartbeat;
+  private final Map<String, Long> pending = new ConcurrentHashMap<>();
+  // the same members by the position they wait for, so caught-up entries expire without a scan
+  private final ConcurrentSkipListMap<Long, Set<String>> byPosition = new ConcurrentSkipListMap<>();
+  private final ThreadLocal<String> reader = new ThreadLocal<>();
+
+  public ReadYourWrites(ReplicaHeartbeat heartbeat) {
+    this.heartbeat = heartbeat;
+  }
+
+  /** Records a committed write by or for {@code memberId}. */
+  public void wrote(String memberId) {
+    if (memberId != null) {
+      // drop the writes the replica has caught up with, so members who never read again go too
+      expire(heartbeat.replicaPosition());
+      long required = pending.merge(memberId, heartbeat.nextPosition(), Math::max);
+      byPosition.computeIfAbsent(required, position -> ConcurrentHashMap.newKeySet()).add(memberId);
+    }
+  }
+
+  private void expire(long replicated) {
+    Iterator<Map.Entry<Long, Set<String>>> caughtUp =
+        byPosition.headMap(replicated, true).entrySet().iterator();
+    while (caughtUp.hasNext()) {
+      Map.Entry<Long, Set<String>> entry = caughtUp.next();
+      caughtUp.remove();
+      // a member who wrote again since waits for a later position and stays
+      entry.getValue().forEach(member -> pending.remove(member, entry.getKey()));
+    }
+  }
+
+  /** Members with a write the replica may not show yet. */
+  int pendingMembers() {
+    return pending.size();
+  }
+
+  /** Records a committed write by the authenticated caller, if there is one. */
+  public void callerWrote() {
+    wrote(caller());
+  }
+
+  /**
+   * Makes {@code memberId} the reader on this thread; returns the previous one for {@link #leave}.
+   */
+  public String enter(String memberId) {
+    String previous = reader.get();
+    reader.set(memberId);
+    return previous;
+  }
+
+  public void leave(String previous) {
+    if (previous == null) {
+      reader.remove();
+    } else {
+      reader.set(previous);
+    }
+  }
+
+  /** Whether the current reader has a write the replica does not show yet. */
+  boolean readerHasUnreplicatedWrites() {
+    String member = reader.get();
+    if (member == null) {
+      member = caller();
+    }
+    if (member == null) {
+      return false;
+    }
+    Long required = pending.get(member);
+    if (required == null) {
+      return false;
+    }
+    if (heartbeat.replicaPosition() >= required) {
+      pending.remove(member, required);
+      return false;
+    }
+    return true;
+  }
+
+  private static String caller() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication instanceof JwtAuthenticationToken ? authentication.getName() : null;
+  }
+}
@@ -0,0 +1,126 @@
+package com.nortal.library.api.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * With {@code library.replica.enabled}, the application datasource routes read-only transactions to
+ * a replica pool and everything else to the primary pool configured under {@code
+ * spring.datasource}. See {@link ReplicaRoutingDataSource} for when a read stays on the primary.
+ * With {@code library.replica.stand-in.enabled} the replica is kept in sync by this application
+ * itself, for a local H2 pair; otherwise something else must replicate into it, including the
+ * {@code replica_heartbeat} table.
+ */
+@Configuration
+@Profile("!memory")
+@ConditionalOnProperty(name = "library.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  @ConfigurationProperties("library.replica.hikari")
+  HikariDataSource replicaDataSource(
+      @Value("${library.replica.url}") String url,
+      @Value("${library.replica.username:sa}") String username,
+      @Value("${library.replica.password:}") String password) {
+    return DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "library.replica.stand-in.enabled", havingValue = "true")
+  StandInReplicator standInReplicator(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      @Value("${library.replica.stand-in.delay-ms:0}") long delayMillis) {
+    // replays are not logged again; the writes were logged on the primary
+    StandInReplicator replicator = new StandInReplicator(undecorated(replica), delayMillis);
+    replicator.copyFrom(primary);
+    return replicator;
+  }
+
+  @Bean
+  ReplicaHeartbeat replicaHeartbeat(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      ObjectProvider<StandInReplicator> standIn,
+      @Value("${library.replica.heartbeat-ms:100}") long intervalMillis,
+      MeterRegistry registry) {
+    // the pools themselves rather than their SQL-logging wrappers: a heartbeat is not worth a log
+    // line
+    ReplicaHeartbeat heartbeat =
+        new ReplicaHeartbeat(
+            writes(undecorated(primary), standIn), undecorated(replica), intervalMillis);
+    Gauge.builder("library.replica.lag", heartbeat, ReplicaConfig::lagSeconds)
+        .description("Age of the oldest heartbeat the replica has not applied; +Inf when unknown")
+        .baseUnit("seconds")
+        .register(registry);
+    return heartbeat;
+  }
+
+  @Bean
+  ReadYourWrites readYourWrites(ReplicaHeartbeat heartbeat) {
+    return new ReadYourWrites(heartbeat);
+  }
+
+  // left out of SQL logging (decorator.datasource.exclude-beans): a logging wrapper fetches the
+  // connection eagerly, before the transaction is marked read-only. The two pools are logged
+  // instead.
+  @Bean
+  @Primary
+  DataSource routingDataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      ObjectProvider<StandInReplicator> standIn,
+      ReplicaHeartbeat heartbeat,
+      ReadYourWrites readYourWrites,
+      @Value("${library.replica.max-lag-ms:1000}") long maxLagMillis,
+      MeterRegistry registry) {
+    return new LazyConnectionDataSourceProxy(
+        new ReplicaRoutingDataSource(
+            writes(primary, standIn), replica, heartbeat, readYourWrites, maxLagMillis, registry));
+  }
+
+  // the primary as the application writes to it: through the stand-in's capture, if there is one
+  private static DataSource writes(DataSource primary, ObjectProvider<StandInReplicator> standIn) {
+    StandInReplicator replicator = standIn.getIfAvailable();
+    return replicator == null ? primary : replicator.capture(primary);
+  }
+
+  private static DataSource undecorated(DataSource dataSource) {
+    try {
+      return dataSource.unwrap(HikariDataSource.class);
+    } catch (SQLException e) {
+      return dataSource;
+    }
+  }
+
+  private static double lagSeconds(ReplicaHeartbeat heartbeat) {
+    long lag = heartbeat.lagMillis();
+    return lag == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : lag / 1000.0;
+  }
+}
@@ -0,0 +1,149 @@
+package com.nortal.library.api.replica;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Measures how far the replica is behind. Every interval the primary's {@code replica_heartbeat}
+ * row gets the next position and the time, and the replica's copy of the row is read back: its
+ * position is the newest heartbeat, and so everything committed before it, the replica has applied.
+ * The lag is the age of the oldest heartbeat it has not applied yet, zero when it has them all.
+ *
+ * <p>Until the first round trip succeeds, and whenever one fails, the lag is unknown and reported
+ * as {@link Long#MAX_VALUE}.
+ */
+public class ReplicaHeartbeat implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaHeartbeat.class);
+
+  private final DataSource primary;
+  private final DataSource replica;
+  private final long intervalMillis;
+  // the highest position a heartbeat has started writing; a write committed before reading this is
+  // visible on the replica once it shows the next one
+  private final AtomicLong issued = new AtomicLong();
+  // committed heartbeats the replica has not shown yet: position -> written at, epoch millis
+  private final ConcurrentSkipListMap<Long, Long> unapplied = new ConcurrentSkipListMap<>();
+  private volatile long replicaPosition;
+  private volatile long lagMillis = Long.MAX_VALUE;
+  private ScheduledExecutorService scheduler;
+
+  public ReplicaHeartbeat(DataSource primary, DataSource replica, long intervalMillis) {
+    this.primary = primary;
+    this.replica = replica;
+    this.intervalMillis = intervalMillis;
+  }
+
+  /** The position the replica must reach before it shows a write that has just committed. */
+  public long nextPosition() {
+    return issued.get() + 1;
+  }
+
+  public long replicaPosition() {
+    return replicaPosition;
+  }
+
+  public long lagMillis() {
+    return lagMillis;
+  }
+
+  @Override
+  public synchronized void start() {
+    // continue from the stored position, so positions only grow across restarts
+    try (Connection connection = primary.getConnection()) {
+      issued.set(position(connection));
+    } catch (SQLException e) {
+      throw new IllegalStateException("cannot read the replica heartbeat position", e);
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "replica-heartbeat");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::beat, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return scheduler != null;
+  }
+
+  void beat() {
+    try {
+      write();
+      read();
+    } catch (SQLException e) {
+      if (lagMillis != Long.MAX_VALUE) {
+        log.warn("Replica heartbeat failed, reading from the primary until it recovers", e);
+      }
+      lagMillis = Long.MAX_VALUE;
+    }
+  }
+
+  private void write() throws SQLException {
+    try (Connection connection = primary.getConnection()) {
+      long position = issued.incrementAndGet();
+      long now = System.currentTimeMillis();
+      try (PreparedStatement update =
+          connection.prepareStatement(
+              "update replica_heartbeat set position = ?, written_at = ? where id = 1")) {
+        update.setLong(1, position);
+        update.setLong(2, now);
+        if (update.executeUpdate() == 0) {
+          try (PreparedStatement insert =
+              connection.prepareStatement(
+                  "insert into replica_heartbeat (id, position, written_at) values (1, ?, ?)")) {
+            insert.setLong(1, position);
+            insert.setLong(2, now);
+            insert.executeUpdate();
+          }
+        }
+      }
+      if (!connection.getAutoCommit()) {
+        connection.commit();
+      }
+      unapplied.put(position, now);
+    }
+  }
+
+  private void read() throws SQLException {
+    long position;
+    try (Connection connection = replica.getConnection()) {
+      position = position(connection);
+    }
+    replicaPosition = position;
+    unapplied.headMap(position, true).clear();
+    Map.Entry<Long, Long> oldest = unapplied.firstEntry();
+    lagMillis = oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getValue());
+  }
+
+  private static long position(Connection connection) throws SQLException {
+    try (PreparedStatement select =
+            connection.prepareStatement("select position from replica_heartbeat where id = 1");
+        ResultSet row = select.executeQuery()) {
+      return row.next() ? row.getLong(1) : 0;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.nortal.library.api.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere
+ * else. A read still goes to the primary when the replica is more than {@code maxLagMillis} behind,
+ * or when its reader has a write the replica does not show yet. Decided when the connection is
+ * fetched, so it must sit behind a {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction is marked
+ * read-only only after it has begun.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  private final ReplicaHeartbeat heartbeat;
+  private final ReadYourWrites readYourWrites;
+  private final long maxLagMillis;
+  private final Counter replicaReads;
+  private final Counter laggingReads;
+  private final Counter ownWriteReads;
+
+  public ReplicaRoutingDataSource(
+      DataSource primary,
+      DataSource replica,
+      ReplicaHeartbeat heartbeat,
+      ReadYourWrites readYourWrites,
+      long maxLagMillis,
+      MeterRegistry registry) {
+    this.heartbeat = heartbeat;
+    this.readYourWrites = readYourWrites;
+    this.maxLagMillis = maxLagMillis;
+    this.replicaReads = reads(registry, "replica");
+    this.laggingReads = reads(registry, "primary_lagging");
+    this.ownWriteReads = reads(registry, "primary_own_writes");
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  private static Counter reads(MeterRegistry registry, String route) {
+    return Counter.builder("library.replica.reads")
+        .description("Read-only transactions by the database they were served from")
+        .tag("route", route)
+        .register(registry);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return Target.PRIMARY;
+    }
+    if (heartbeat.lagMillis() > maxLagMillis) {
+      laggingReads.increment();
+      return Target.PRIMARY;
+    }
+    if (readYourWrites.readerHasUnreplicatedWrites()) {
+      ownWriteReads.increment();
+      return Target.PRIMARY;
+    }
+    replicaReads.increment();
+    return Target.REPLICA;
+  }
+}
@@ -0,0 +1,304 @@
+package com.nortal.library.api.replica;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Keeps a second H2 database in step with the primary by replaying the primary's committed writes,
+ * a stand-in for real replication when running locally. The replica starts as a {@code SCRIPT} copy
+ * of the primary. From then on every insert, update, delete and DDL statement run through the
+ * {@link #capture captured} datasource is recorded with its parameters and, when its transaction
+ * commits, queued as one unit. One thread applies the units in order, each in its own transaction
+ * and no sooner than {@code delayMillis} after the primary committed it, so lag can be produced on
+ * purpose.
+ *
+ * <p>A commit and the queueing of its unit happen under one lock, which keeps the queue in commit
+ * order but also makes commits on the primary take turns. That is fine for a developer's machine
+ * and nowhere else, so it only runs when {@code library.replica.stand-in.enabled} is set, as the
+ * {@code replica} profile does. If a unit fails to apply, replication stops and the heartbeat shows
+ * the replica falling behind from then on.
+ */
+public class StandInReplicator implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(StandInReplicator.class);
+  private static final Pattern WRITE =
+      Pattern.compile(
+          "^\\s*(insert|update|delete|merge|create|alter|drop|truncate)\\b",
+          Pattern.CASE_INSENSITIVE);
+
+  private record Call(Method method, Object[] args) {}
+
+  private record Write(String sql, List<Call> parameters) {}
+
+  private record Unit(List<Write> writes, long committedAt) {}
+
+  private final DataSource replica;
+  private final long delayNanos;
+  private final BlockingQueue<Unit> units = new LinkedBlockingQueue<>();
+  // not a monitor: it is held across a JDBC commit, which would pin a virtual thread's carrier
+  private final ReentrantLock commitLock = new ReentrantLock();
+  private Thread applier;
+
+  public StandInReplicator(DataSource replica, long delayMillis) {
+    this.replica = replica;
+    this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+  }
+
+  /**
+   * Copies the primary's current schema and rows over whatever the replica holds. Must run before
+   * the first write through {@link #capture}.
+   */
+  public void copyFrom(DataSource primary) {
+    long started = System.nanoTime();
+    int statements = 0;
+    try (Connection source = primary.getConnection();
+        Connection target = replica.getConnection();
+        Statement script = source.createStatement();
+        Statement apply = target.createStatement()) {
+      apply.execute("DROP ALL OBJECTS");
+      try (ResultSet rows = script.executeQuery("SCRIPT")) {
+        while (rows.next()) {
+          String sql = rows.getString(1);
+          if (!sql.startsWith("--")) {
+            apply.execute(sql);
+            statements++;
+          }
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("cannot copy the primary to the stand-in replica", e);
+    }
+    log.info(
+        "Stand-in replica copied from the primary: {} statements in {} ms",
+        statements,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+  }
+
+  /** {@code primary}, with the writes on its connections recorded for the replica. */
+  public DataSource capture(DataSource primary) {
+    return new DelegatingDataSource(primary) {
+      @Override
+      public Connection getConnection() throws SQLException {
+        return recording(super.getConnection());
+      }
+
+      @Override
+      public Connection getConnection(String username, String password) throws SQLException {
+        return recording(super.getConnection(username, password));
+      }
+    };
+  }
+
+  private Connection recording(Connection connection) {
+    // the connection's writes since its last commit; a pooled connection serves one thread at a
+    // time
+    List<Write> pending = new ArrayList<>();
+    return proxy(
+        Connection.class,
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "prepareStatement" -> {
+                PreparedStatement statement = (PreparedStatement) invoke(connection, method, args);
+                String sql = (String) args[0];
+                yield isWrite(sql) ? recording(statement, sql, connection, pending) : statement;
+              }
+              case "createStatement" ->
+                  recording((Statement) invoke(connection, method, args), connection, pending);
+              case "commit" -> committed(pending, () -> invoke(connection, method, args));
+              case "setAutoCommit" -> {
+                // switching auto-commit back on commits what is pending
+                if ((Boolean) args[0] && !connection.getAutoCommit()) {
+                  yield committed(pending, () -> invoke(connection, method, args));
+                }
+                yield invoke(connection, method, args);
+              }
+              case "rollback", "close" -> {
+                if (args == null) {
+                  pending.clear();
+                }
+                yield invoke(connection, method, args);
+              }
+              default -> invoke(connection, method, args);
+            });
+  }
+
+  private PreparedStatement recording(
+      PreparedStatement statement, String sql, Connection connection, List<Write> pending) {
+    List<Call> parameters = new ArrayList<>();
+    List<Write> batch = new ArrayList<>();
+    return proxy(
+        PreparedStatement.class,
+        (proxy, method, args) -> {
+          String name = method.getName();
+          if (name.startsWith("set")
+              && args != null
+              && args.length > 1
+              && args[0] instanceof Integer) {
+            parameters.add(new Call(method, args.clone()));
+          } else if (name.equals("clearParameters")) {
+            parameters.clear();
+          } else if (name.equals("addBatch")) {
+            batch.add(new Write(sql, List.copyOf(parameters)));
+          } else if (name.equals("clearBatch")) {
+            batch.clear();
+          } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+            List<Write> writes = List.copyOf(batch);
+            batch.clear();
+            return executed(connection, pending, writes, () -> invoke(statement, method, args));
+          } else if (name.startsWith("execute")) {
+            List<Write> writes = List.of(new Write(sql, List.copyOf(parameters)));
+            return executed(connection, pending, writes, () -> invoke(statement, method, args));
+          }
+          return invoke(statement, method, args);
+        });
+  }
+
+  private Statement recording(Statement statement, Connection connection, List<Write> pending) {
+    List<Write> batch = new ArrayList<>();
+    return proxy(
+        Statement.class,
+        (proxy, method, args) -> {
+          String name = method.getName();
+          String sql = args != null && args[0] instanceof String text ? text : null;
+          if (name.equals("addBatch") && isWrite(sql)) {
+            batch.add(new Write(sql, List.of()));
+          } else if (name.equals("clearBatch")) {
+            batch.clear();
+          } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+            List<Write> writes = List.copyOf(batch);
+            batch.clear();
+            return executed(connection, pending, writes, () -> invoke(statement, method, args));
+          } else if (name.startsWith("execute") && isWrite(sql)) {
+            List<Write> writes = List.of(new Write(sql, List.of()));
+            return executed(connection, pending, writes, () -> invoke(statement, method, args));
+          }
+          return invoke(statement, method, args);
+        });
+  }
+
+  private interface Execution {
+    Object run() throws Throwable;
+  }
+
+  private Object executed(
+      Connection connection, List<Write> pending, List<Write> writes, Execution execution)
+      throws Throwable {
+    if (!connection.getAutoCommit()) {
+      Object result = execution.run();
+      pending.addAll(writes);
+      return result;
+    }
+    // the statement commits on its own
+    return committed(new ArrayList<>(writes), execution);
+  }
+
+  private Object committed(List<Write> pending, Execution commit) throws Throwable {
+    commitLock.lock();
+    try {
+      Object result = commit.run();
+      if (!pending.isEmpty()) {
+        units.add(new Unit(List.copyOf(pending), System.nanoTime()));
+      }
+      return result;
+    } finally {
+      pending.clear();
+      commitLock.unlock();
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    log.warn(
+        "Stand-in replica is on: commits on the primary take turns, use it for development only");
+    applier = new Thread(this::applyAll, "replica-applier");
+    applier.setDaemon(true);
+    applier.start();
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (applier != null) {
+      applier.interrupt();
+      applier = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return applier != null;
+  }
+
+  private void applyAll() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Unit unit = units.take();
+        long wait = unit.committedAt() + delayNanos - System.nanoTime();
+        if (wait > 0) {
+          TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        apply(unit);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (SQLException | ReflectiveOperationException e) {
+      log.error("Stand-in replica stopped applying the primary's writes", e);
+    }
+  }
+
+  private void apply(Unit unit) throws SQLException, ReflectiveOperationException {
+    try (Connection connection = replica.getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        for (Write write : unit.writes()) {
+          try (PreparedStatement statement = connection.prepareStatement(write.sql())) {
+            for (Call call : write.parameters()) {
+              call.method().invoke(statement, call.args());
+            }
+            statement.execute();
+          }
+        }
+        connection.commit();
+      } catch (SQLException | ReflectiveOperationException e) {
+        connection.rollback();
+        throw e;
+      }
+    }
+  }
+
+  private static boolean isWrite(String sql) {
+    return sql != null && WRITE.matcher(sql).find();
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            StandInReplicator.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+}
@@ -2,41 +2,71 @@ package com.nortal.library.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.nortal.library.api.dto.BatchCommandRequest;
+import com.nortal.library.api.dto.BatchRequest;
+import com.nortal.library.api.dto.BatchResponse;
 import com.nortal.library.api.dto.BookResponse;
 import com.nortal.library.api.dto.BooksResponse;
 import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CacheStatsResponse;
 import com.nortal.library.api.dto.CancelReservationRequest;
 import com.nortal.library.api.dto.CreateBookRequest;
 import com.nortal.library.api.dto.CreateMemberRequest;
 import com.nortal.library.api.dto.DeleteBookRequest;
 import com.nortal.library.api.dto.DeleteMemberRequest;
 import com.nortal.library.api.dto.LoanExtensionRequest;
+import com.nortal.library.api.dto.LockStatsResponse;
 import com.nortal.library.api.dto.MemberResponse;
 import com.nortal.library.api.dto.MemberSummaryResponse;
 import com.nortal.library.api.dto.MembersResponse;
+import com.nortal.library.api.dto.ReconcileResponse;
 import com.nortal.library.api.dto.ReserveRequest;
 import com.nortal.library.api.dto.ResultResponse;
 import com.nortal.library.api.dto.ResultWithNextResponse;
 import com.nortal.library.api.dto.ReturnRequest;
 import com.nortal.library.api.dto.UpdateBookRequest;
 import com.nortal.library.api.dto.UpdateMemberRequest;
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.port.MemberRepository;
+import com.nortal.library.persistence.adapter.MemberRepositoryAdapter;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
-
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+import org.springframework.transaction.support.TransactionTemplate;
+
+// a private in-memory database, dropped with each context, so every test starts from the seed data
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.url=jdbc:h2:mem:api-integration")
+// keeps the Prometheus registry that tests otherwise swap for a simple one
+@AutoConfigureObservability(tracing = false)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ApiIntegrationTest {
 
   @LocalServerPort int port;
 
+  @Autowired CacheManager cacheManager;
+
+  @Autowired MemberRepository memberRepository;
+
+  @Autowired TransactionTemplate transactions;
+
   private final TestRestTemplate rest = new TestRestTemplate();
 
   @Test
@@ -53,6 +83,27 @@ class ApiIntegrationTest {
     assertThat(members.items()).allSatisfy(m -> assertThat(m.id()).isNotBlank());
   }
 
+  @Test
+  void listsBooksAndMembersInKeysetPages() {
+    List<String> bookIds = new ArrayList<>();
+    String cursor = null;
+    do {
+      BooksResponse page =
+          rest.getForObject(
+              url("/api/books?limit=2" + (cursor == null ? "" : "&cursor=" + cursor)),
+              BooksResponse.class);
+      assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+      page.items().forEach(b -> bookIds.add(b.id()));
+      cursor = page.nextCursor();
+    } while (cursor != null);
+    assertThat(bookIds).isSorted().doesNotHaveDuplicates().contains("b1", "b6");
+
+    MembersResponse firstMembers =
+        rest.getForObject(url("/api/members?limit=1"), MembersResponse.class);
+    assertThat(firstMembers.items()).hasSize(1);
+    assertThat(firstMembers.nextCursor()).isEqualTo(firstMembers.items().getFirst().id());
+  }
+
   @Test
   void bookCrudRoundtrip() {
     ResultResponse created =
@@ -130,6 +181,126 @@ class ApiIntegrationTest {
     assertThat(afterDelete.items().stream().noneMatch(m -> Objects.equals(m.id(), "vm1"))).isTrue();
   }
 
+  @Test
+  void memberExistenceCacheFollowsCreateAndDelete() {
+    rest.postForObject(
+        url("/api/books"), new CreateBookRequest("vb-cache", "Cached"), ResultResponse.class);
+
+    ResultResponse unknown =
+        rest.postForObject(
+            url("/api/borrow"), new BorrowRequest("vb-cache", "vm-cache"), ResultResponse.class);
+    assertThat(unknown.reason()).isEqualTo("MEMBER_NOT_FOUND");
+
+    rest.postForObject(
+        url("/api/members"), new CreateMemberRequest("vm-cache", "Cached"), ResultResponse.class);
+    ResultResponse borrowed =
+        rest.postForObject(
+            url("/api/borrow"), new BorrowRequest("vb-cache", "vm-cache"), ResultResponse.class);
+    assertThat(borrowed.ok()).isTrue();
+    rest.postForObject(
+        url("/api/return"),
+        new ReturnRequest("vb-cache", "vm-cache"),
+        ResultWithNextResponse.class);
+
+    rest.exchange(
+        url("/api/members"),
+        HttpMethod.DELETE,
+        new org.springframework.http.HttpEntity<>(new DeleteMemberRequest("vm-cache")),
+        ResultResponse.class);
+    ResultResponse deleted =
+        rest.postForObject(
+            url("/api/reserve"), new ReserveRequest("vb-cache", "vm-cache"), ResultResponse.class);
+    assertThat(deleted.reason()).isEqualTo("MEMBER_NOT_FOUND");
+
+    Map<String, CacheStatsResponse> stats =
+        rest.exchange(
+                url("/api/stats/caches"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<Map<String, CacheStatsResponse>>() {})
+            .getBody();
+    assertThat(stats).containsKey("memberExists");
+    assertThat(stats.get("memberExists").misses()).isPositive();
+  }
+
+  @Test
+  void bulkMemberLoadsCacheOnlyTheMembersFound() {
+    Cache exists = cacheManager.getCache(MemberRepositoryAdapter.EXISTS_CACHE);
+    exists.clear();
+
+    memberRepository.findAllById(List.of("m1", "vm-absent"));
+
+    assertThat(exists.get("m1", Boolean.class)).isTrue();
+    assertThat(exists.get("vm-absent")).isNull();
+  }
+
+  @Test
+  void memberCreatedDuringAnOpenMissCanBorrow() {
+    transactions.executeWithoutResult(
+        status -> {
+          assertThat(memberRepository.existsById("vm-late")).isFalse();
+          // commits and evicts while the lookup's transaction is still open
+          CompletableFuture.runAsync(
+                  () ->
+                      rest.postForObject(
+                          url("/api/members"),
+                          new CreateMemberRequest("vm-late", "Late Member"),
+                          ResultResponse.class))
+              .join();
+        });
+
+    ResultResponse borrowed =
+        rest.postForObject(
+            url("/api/borrow"), new BorrowRequest("b1", "vm-late"), ResultResponse.class);
+    assertThat(borrowed.ok()).isTrue();
+  }
+
+  @Test
+  void lockStatsCountStripeAcquisitions() {
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b1", "m1"), ResultResponse.class);
+    rest.postForObject(
+        url("/api/return"), new ReturnRequest("b1", "m1"), ResultWithNextResponse.class);
+
+    LockStatsResponse stats = rest.getForObject(url("/api/stats/locks"), LockStatsResponse.class);
+    assertThat(stats.stripes()).isEqualTo(1024);
+    assertThat(stats.active())
+        .anySatisfy(stripe -> assertThat(stripe.acquisitions()).isGreaterThanOrEqualTo(2));
+  }
+
+  @Test
+  void prometheusEndpointReportsOutcomesAndCirculation() {
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b1", "m1"), ResultResponse.class);
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b1", "m2"), ResultResponse.class);
+    rest.postForObject(url("/api/reserve"), new ReserveRequest("b1", "m2"), ResultResponse.class);
+
+    String scrape = rest.getForObject(url("/actuator/prometheus"), String.class);
+    assertThat(scrape)
+        .contains(
+            "library_operation_outcomes_total" + tags("borrowBook", "success", "none") + " 1.0")
+        .contains(
+            "library_operation_outcomes_total"
+                + tags("borrowBook", "failure", "BOOK_UNAVAILABLE")
+                + " 1.0")
+        .contains(
+            "library_operation_seconds_count" + tags("reserveBook", "success", "none") + " 1");
+    assertThat(gauge(scrape, "library_loans_active")).isEqualTo(1);
+    assertThat(gauge(scrape, "library_reservations_queued")).isEqualTo(1);
+    assertThat(gauge(scrape, "library_reservations_longest_queue")).isEqualTo(1);
+  }
+
+  private static double gauge(String scrape, String name) {
+    return scrape
+        .lines()
+        .filter(line -> line.startsWith(name + " "))
+        .mapToDouble(line -> Double.parseDouble(line.substring(name.length() + 1)))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static String tags(String operation, String outcome, String reason) {
+    return "{operation=\"%s\",outcome=\"%s\",reason=\"%s\"}".formatted(operation, outcome, reason);
+  }
+
   @Test
   void borrowAndReturnHappyPath() {
     ResultResponse borrow =
@@ -166,6 +337,66 @@ class ApiIntegrationTest {
     assertThat(canceled.ok()).isTrue();
   }
 
+  @Test
+  void queueKeepsOrderAcrossMidQueueCancel() {
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b6", "m1"), ResultResponse.class);
+    for (String member : List.of("m2", "m3", "m4")) {
+      rest.postForObject(
+          url("/api/reserve"), new ReserveRequest("b6", member), ResultResponse.class);
+    }
+    ResultResponse duplicate =
+        rest.postForObject(
+            url("/api/reserve"), new ReserveRequest("b6", "m3"), ResultResponse.class);
+    assertThat(duplicate.reason()).isEqualTo("ALREADY_RESERVED");
+
+    rest.postForObject(
+        url("/api/cancel-reservation"),
+        new CancelReservationRequest("b6", "m3"),
+        ResultResponse.class);
+    MemberSummaryResponse m4 =
+        rest.getForObject(url("/api/members/m4/summary"), MemberSummaryResponse.class);
+    assertThat(m4.reservations())
+        .singleElement()
+        .satisfies(r -> assertThat(r.position()).isEqualTo(1));
+
+    ResultWithNextResponse returned =
+        rest.postForObject(
+            url("/api/return"), new ReturnRequest("b6", "m1"), ResultWithNextResponse.class);
+    assertThat(returned.nextMemberId()).isEqualTo("m2");
+    BookResponse book =
+        rest.getForObject(url("/api/books"), BooksResponse.class).items().stream()
+            .filter(b -> b.id().equals("b6"))
+            .findFirst()
+            .orElseThrow();
+    assertThat(book.loanedTo()).isEqualTo("m2");
+    assertThat(book.reservationQueue()).containsExactly("m4");
+  }
+
+  @Test
+  void batchRunsCommandsInOrder() {
+    BatchResponse response =
+        rest.postForObject(
+            url("/api/batch"),
+            new BatchRequest(
+                List.of(
+                    new BatchCommandRequest(LibraryService.Operation.BORROW, "b4", "m1"),
+                    new BatchCommandRequest(LibraryService.Operation.RESERVE, "b4", "m2"),
+                    new BatchCommandRequest(LibraryService.Operation.BORROW, "b4", "m3"),
+                    new BatchCommandRequest(LibraryService.Operation.RETURN, "b4", "m1"),
+                    new BatchCommandRequest(LibraryService.Operation.CANCEL, "b4", "m2"),
+                    new BatchCommandRequest(LibraryService.Operation.RETURN, "b4", null),
+                    new BatchCommandRequest(LibraryService.Operation.RETURN, "b4", "m2"))),
+            BatchResponse.class);
+
+    assertThat(response.results())
+        .extracting(BatchResponse.BatchResultResponse::ok)
+        .containsExactly(true, true, false, true, false, false, true);
+    assertThat(response.results().get(2).reason()).isEqualTo("BOOK_UNAVAILABLE");
+    assertThat(response.results().get(3).nextMemberId()).isEqualTo("m2");
+    assertThat(response.results().get(4).reason()).isEqualTo("NOT_RESERVED");
+    assertThat(response.results().get(5).reason()).isEqualTo("INVALID_REQUEST");
+  }
+
   @Test
   void extendLoanUpdatesDueDate() {
     ResultResponse borrow =
@@ -241,6 +472,45 @@ class ApiIntegrationTest {
     assertThat(overdue.items().stream().anyMatch(b -> b.id().equals("b6"))).isTrue();
   }
 
+  @Test
+  void overdueEndpointPagesByDueDate() {
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b5", "m3"), ResultResponse.class);
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b6", "m3"), ResultResponse.class);
+    rest.postForObject(
+        url("/api/extend"), new LoanExtensionRequest("b5", -40), ResultResponse.class);
+    rest.postForObject(
+        url("/api/extend"), new LoanExtensionRequest("b6", -20), ResultResponse.class);
+
+    List<BookResponse> seen = new ArrayList<>();
+    String cursor = null;
+    do {
+      BooksResponse page =
+          rest.getForObject(
+              url("/api/overdue?limit=1" + (cursor == null ? "" : "&cursor=" + cursor)),
+              BooksResponse.class);
+      assertThat(page.items()).hasSizeLessThanOrEqualTo(1);
+      seen.addAll(page.items());
+      cursor = page.nextCursor();
+    } while (cursor != null);
+
+    assertThat(seen).extracting(BookResponse::dueDate).isSorted();
+    assertThat(seen).extracting(BookResponse::id).contains("b5", "b6");
+  }
+
+  @Test
+  void loanCountersStayInStepWithLoans() {
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b1", "m4"), ResultResponse.class);
+    rest.postForObject(url("/api/borrow"), new BorrowRequest("b2", "m4"), ResultResponse.class);
+    rest.postForObject(url("/api/reserve"), new ReserveRequest("b1", "m3"), ResultResponse.class);
+    rest.postForObject(
+        url("/api/return"), new ReturnRequest("b1", "m4"), ResultWithNextResponse.class);
+
+    ReconcileResponse reconciled =
+        rest.postForObject(url("/api/reconcile-loans"), null, ReconcileResponse.class);
+    assertThat(reconciled.ok()).isTrue();
+    assertThat(reconciled.drifted()).isZero();
+  }
+
   @Test
   void healthEndpointRespondsOk() {
     ResponseEntity<String> response = rest.getForEntity(url("/api/health"), String.class);
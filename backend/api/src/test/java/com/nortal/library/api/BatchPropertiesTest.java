@@ -0,0 +1,40 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.config.BatchProperties;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class BatchPropertiesTest {
+
+  private final ApplicationContextRunner runner =
+      new ApplicationContextRunner().withUserConfiguration(BatchPropertiesConfig.class);
+
+  @ParameterizedTest
+  @ValueSource(strings = {"chunk-size=0", "chunk-size=-1", "max-commands=0"})
+  void valuesBelowOneFailStartup(String setting) {
+    runner
+        .withPropertyValues("library.batch." + setting)
+        .run(
+            context ->
+                assertThat(context)
+                    .hasFailed()
+                    .getFailure()
+                    .rootCause()
+                    .hasMessageContaining("library.batch"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"chunk-size=1", "max-commands=1"})
+  void positiveValuesBind(String setting) {
+    runner
+        .withPropertyValues("library.batch." + setting)
+        .run(context -> assertThat(context).hasNotFailed().hasSingleBean(BatchProperties.class));
+  }
+
+  @EnableConfigurationProperties(BatchProperties.class)
+  static class BatchPropertiesConfig {}
+}
@@ -0,0 +1,134 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.aop.TransactionRetryAspect;
+import com.nortal.library.core.LibraryService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+
+/**
+ * Borrow/return throughput when every worker fights over one book versus when each has its own.
+ * Besides printing the numbers it checks that no book was ever held by two members at once.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1",
+      "decorator.datasource.p6spy.enable-logging=false",
+      "logging.level.com.nortal.library=INFO"
+    })
+class BorrowContentionBenchmarkTest {
+
+  private static final int WORKERS = 8;
+  private static final long DURATION_MILLIS = 3_000;
+
+  @Autowired LibraryService libraryService;
+
+  @Autowired TransactionRetryAspect retryAspect;
+
+  @Test
+  void hotBookVersusSpreadBooks() throws Exception {
+    for (int w = 0; w < WORKERS; w++) {
+      libraryService.createMember("cb-member-" + w, "Contender " + w);
+      libraryService.createBook("cb-book-" + w, "Contended " + w);
+    }
+
+    Run hot = run("hot", 1);
+    Run spread = run("spread", WORKERS);
+
+    System.out.printf(
+        "%n%-8s %12s %10s %10s %10s%n", "books", "borrows/s", "attempts", "retries", "gave up");
+    for (Run r : List.of(hot, spread)) {
+      System.out.printf(
+          "%-8s %12.0f %10d %10d %10d%n",
+          r.name, r.borrowsPerSecond(), r.attempts, r.retries, r.gaveUp);
+    }
+
+    assertThat(hot.doubleLoans).isZero();
+    assertThat(spread.doubleLoans).isZero();
+    assertThat(hot.borrows).isPositive();
+    assertThat(spread.borrows).isPositive();
+    assertThat(libraryService.reconcileLoanCounters()).isZero();
+  }
+
+  private Run run(String name, int books) throws Exception {
+    AtomicIntegerArray holders = new AtomicIntegerArray(books);
+    AtomicLong borrows = new AtomicLong();
+    AtomicLong attempts = new AtomicLong();
+    AtomicLong gaveUp = new AtomicLong();
+    AtomicInteger doubleLoans = new AtomicInteger();
+    long retriesBefore = retryAspect.retries();
+    long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+
+    ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+    List<Future<?>> workers = new ArrayList<>();
+    for (int w = 0; w < WORKERS; w++) {
+      int slot = w % books;
+      String memberId = "cb-member-" + w;
+      String bookId = "cb-book-" + slot;
+      workers.add(
+          pool.submit(
+              () -> {
+                while (System.currentTimeMillis() < deadline) {
+                  attempts.incrementAndGet();
+                  try {
+                    if (!libraryService.borrowBook(bookId, memberId).ok()) {
+                      continue;
+                    }
+                  } catch (ConcurrencyFailureException e) {
+                    gaveUp.incrementAndGet();
+                    continue;
+                  }
+                  borrows.incrementAndGet();
+                  if (holders.incrementAndGet(slot) != 1) {
+                    doubleLoans.incrementAndGet();
+                  }
+                  // released before the return commits, so a rival's borrow cannot precede it
+                  holders.decrementAndGet(slot);
+                  returnUntilDone(bookId, memberId);
+                }
+              }));
+    }
+    for (Future<?> worker : workers) {
+      worker.get();
+    }
+    pool.shutdown();
+    return new Run(
+        name,
+        borrows.get(),
+        attempts.get(),
+        retryAspect.retries() - retriesBefore,
+        gaveUp.get(),
+        doubleLoans.get());
+  }
+
+  private void returnUntilDone(String bookId, String memberId) {
+    while (true) {
+      try {
+        libraryService.returnBook(bookId, memberId);
+        return;
+      } catch (ConcurrencyFailureException e) {
+        // the borrower must get the book back in, however long the retries take
+      }
+    }
+  }
+
+  private record Run(
+      String name, long borrows, long attempts, long retries, long gaveUp, int doubleLoans) {
+    double borrowsPerSecond() {
+      return borrows * 1000.0 / DURATION_MILLIS;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.nortal.library.api.config.ImportProperties;
+import com.nortal.library.api.dto.BooksResponse;
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.ImportResponse;
+import com.nortal.library.api.dto.ImportResponse.RejectedRowResponse;
+import com.nortal.library.api.dto.ResultResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class BulkImportTest extends StatementCountingTest {
+
+  private static final int ROWS = 250;
+
+  @Test
+  void csvBooksLoadInBatchedStatementsAndBadRowsAreReported() {
+    StringBuilder csv = new StringBuilder("id,title\n");
+    for (int i = 0; i < ROWS; i++) {
+      csv.append("bi-book-").append(i).append(",Imported ").append(i).append('\n');
+    }
+    csv.append("bi-book-0,Repeated\n") // line 252
+        .append("b1,Seeded already\n")
+        .append("bi-untitled,\n")
+        .append("\"bi-open,Unclosed quote\n")
+        .append("bi-quoted,\"Commas, and \"\"quotes\"\"\"\n");
+
+    ImportResponse[] response = new ImportResponse[1];
+    long executed =
+        statements.countDuring(() -> response[0] = post("/api/import/books", "text/csv", csv));
+
+    assertThat(response[0].imported()).isEqualTo(ROWS + 1);
+    assertThat(response[0].rejected()).isEqualTo(4);
+    assertThat(response[0].rejections())
+        .extracting(RejectedRowResponse::line, RejectedRowResponse::id, RejectedRowResponse::reason)
+        .containsExactly(
+            tuple(255L, null, "MALFORMED"),
+            tuple(252L, "bi-book-0", "DUPLICATE_ID"),
+            tuple(253L, "b1", "DUPLICATE_ID"),
+            tuple(254L, "bi-untitled", "MISSING_TITLE"));
+    // per batch of 100: one lookup of the taken ids and one JDBC batch of inserts
+    assertThat(executed).isLessThanOrEqualTo(2 * 3);
+
+    BooksResponse found =
+        rest.getForObject(url("/api/books/search?titleContains=quotes"), BooksResponse.class);
+    assertThat(found.items())
+        .singleElement()
+        .satisfies(b -> assertThat(b.title()).isEqualTo("Commas, and \"quotes\""));
+  }
+
+  @Test
+  void ndjsonMembersLoadAndBecomeKnownToBorrow() {
+    // caches a "no such member" answer that the import has to evict
+    assertThat(borrow("b3", "bi-member").reason()).isEqualTo("MEMBER_NOT_FOUND");
+
+    String ndjson =
+        """
+        {"id":"bi-member","name":"Imported"}
+        {"id":"bi-nameless"}
+        {not json
+        ["bi-array","Not an object"]
+        {"id":"bi-other","name":"Second","extra":true}
+        """;
+    ImportResponse response = post("/api/import/members", "application/x-ndjson", ndjson);
+
+    assertThat(response.imported()).isEqualTo(2);
+    assertThat(response.rejections())
+        .extracting(RejectedRowResponse::reason)
+        .containsExactly("MALFORMED", "MALFORMED", "MISSING_NAME");
+    assertThat(borrow("b3", "bi-member").ok()).isTrue();
+  }
+
+  private ImportResponse post(String path, String contentType, CharSequence body) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.parseMediaType(contentType));
+    return rest.postForObject(
+        url(path), new HttpEntity<>(body.toString(), headers), ImportResponse.class);
+  }
+
+  private ResultResponse borrow(String bookId, String memberId) {
+    return rest.postForObject(
+        url("/api/borrow"), new BorrowRequest(bookId, memberId), ResultResponse.class);
+  }
+
+  @Test
+  void batchSizeBelowOneFailsStartup() {
+    new ApplicationContextRunner()
+        .withUserConfiguration(ImportPropertiesConfig.class)
+        .withPropertyValues("library.import.batch-size=0")
+        .run(
+            context ->
+                assertThat(context)
+                    .hasFailed()
+                    .getFailure()
+                    .rootCause()
+                    .hasMessageContaining("library.import.batchSize"));
+  }
+
+  @EnableConfigurationProperties(ImportProperties.class)
+  static class ImportPropertiesConfig {}
+}
@@ -0,0 +1,96 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CreateBookRequest;
+import com.nortal.library.api.dto.ResultResponse;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A client that sends back the ETag of a list gets a 304 without a query until a change to the
+ * catalog it reads commits.
+ */
+class CatalogETagTest extends StatementCountingTest {
+
+  @Test
+  void unchangedListsAreNotModifiedWithoutAQuery() {
+    for (String path :
+        new String[] {
+          "/api/books",
+          "/api/books?limit=2",
+          "/api/members",
+          "/api/overdue",
+          "/api/members/m1/summary"
+        }) {
+      String etag = get(path, null).getHeaders().getETag();
+      assertThat(etag).as(path).startsWith("\"").endsWith("\"");
+
+      long executed =
+          statements.countDuring(
+              () -> assertThat(get(path, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED));
+      assertThat(executed).as(path).isZero();
+    }
+  }
+
+  @Test
+  void eachCatalogChangesItsOwnETags() {
+    String books = get("/api/books", null).getHeaders().getETag();
+    String members = get("/api/members", null).getHeaders().getETag();
+    String summary = get("/api/members/m2/summary", null).getHeaders().getETag();
+
+    // a failed operation changes nothing
+    post("/api/borrow", new BorrowRequest("no-such-book", "m2"));
+    assertThat(get("/api/books", books).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+    post("/api/books", new CreateBookRequest("etag-book", "ETag Book"));
+    ResponseEntity<String> changed = get("/api/books", books);
+    assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changed.getBody()).contains("etag-book");
+    assertThat(changed.getHeaders().getETag()).isNotEqualTo(books);
+    assertThat(get("/api/members", members).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+    assertThat(post("/api/borrow", new BorrowRequest("etag-book", "m2")).ok()).isTrue();
+    ResponseEntity<String> borrowed = get("/api/members/m2/summary", summary);
+    assertThat(borrowed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(borrowed.getBody()).contains("etag-book");
+  }
+
+  @Test
+  void revalidatingReadsLetBrowsersCacheThePreflight() throws Exception {
+    // HttpURLConnection, behind the RestTemplate, drops the restricted Origin header
+    HttpRequest preflight =
+        HttpRequest.newBuilder(URI.create(url("/api/members/m2/summary")))
+            .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+            .header("Origin", "http://localhost:4200")
+            .header("Access-Control-Request-Method", "GET")
+            .header("Access-Control-Request-Headers", "if-none-match")
+            .build();
+    HttpResponse<Void> response =
+        HttpClient.newHttpClient().send(preflight, HttpResponse.BodyHandlers.discarding());
+
+    assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+    assertThat(response.headers().firstValue("Access-Control-Max-Age")).contains("3600");
+  }
+
+  private ResponseEntity<String> get(String path, String ifNoneMatch) {
+    HttpHeaders headers = new HttpHeaders();
+    if (ifNoneMatch != null) {
+      headers.setIfNoneMatch(ifNoneMatch);
+    }
+    return rest.exchange(url(path), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+  }
+
+  private ResultResponse post(String path, Object body) {
+    return rest.postForObject(url(path), body, ResultResponse.class);
+  }
+}
@@ -0,0 +1,67 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Exports far more rows than fit in the heap {@code memoryTest} runs with. The database is a file
+ * with a small page cache so the rows themselves do not count against the heap either.
+ */
+@Tag("memory")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties =
+        "spring.datasource.url=jdbc:h2:file:./build/export-memory-test/library;CACHE_SIZE=8192")
+class ExportStreamingMemoryTest {
+
+  private static final int ROWS = 300_000;
+  private static final int BATCH = 5_000;
+
+  @LocalServerPort int port;
+
+  @Autowired JdbcTemplate jdbc;
+
+  @Test
+  void exportsEveryBookWithinASmallHeap() throws Exception {
+    jdbc.update("delete from book_reservations where book_id like 'exp-%'");
+    jdbc.update("delete from books where id like 'exp-%'");
+    for (int from = 0; from < ROWS; from += BATCH) {
+      List<Object[]> rows = new ArrayList<>(BATCH);
+      for (int i = from; i < from + BATCH; i++) {
+        rows.add(new Object[] {"exp-%07d".formatted(i), "Exported title " + i});
+      }
+      jdbc.batchUpdate("insert into books (id, title) values (?, ?)", rows);
+    }
+
+    HttpResponse<Stream<String>> response =
+        HttpClient.newHttpClient()
+            .send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/export/books"))
+                    .build(),
+                HttpResponse.BodyHandlers.ofLines());
+
+    AtomicLong exported = new AtomicLong();
+    try (Stream<String> lines = response.body()) {
+      lines.filter(line -> line.contains("\"exp-")).forEach(line -> exported.incrementAndGet());
+    }
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers().firstValue("Content-Type"))
+        .hasValueSatisfying(type -> assertThat(type).startsWith("application/x-ndjson"));
+    assertThat(exported).hasValue(ROWS);
+  }
+}
@@ -0,0 +1,263 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.ResultResponse;
+import com.nortal.library.api.dto.ResultWithNextResponse;
+import com.nortal.library.api.dto.ReturnRequest;
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.LibraryService.BatchCommand;
+import com.nortal.library.core.LibraryService.BatchOutcome;
+import com.nortal.library.core.LibraryService.Operation;
+import com.nortal.library.core.commit.GroupCommitExecutor;
+import com.nortal.library.core.domain.BookView;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:group-commit;DB_CLOSE_DELAY=-1",
+      "library.group-commit.enabled=true",
+      "library.overdue.in-memory-index=true"
+    })
+class GroupCommitTest {
+
+  private static final int CLIENTS = 32;
+
+  @LocalServerPort int port;
+
+  @Autowired LibraryService library;
+
+  @Autowired GroupCommitExecutor groupCommit;
+
+  @Autowired PlatformTransactionManager transactionManager;
+
+  private final TestRestTemplate rest = new TestRestTemplate();
+
+  @Test
+  void concurrentBorrowsShareTransactionsAndKeepTheirOwnOutcomes() throws Exception {
+    library.createBook("gc-hot", "Contested");
+    for (int c = 0; c < CLIENTS; c++) {
+      library.createMember("gc-member-" + c, "Client " + c);
+      library.createBook("gc-book-" + c, "Own " + c);
+    }
+    long batchesBefore = groupCommit.batches();
+    long commandsBefore = groupCommit.commands();
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<ResultResponse>>> clients = new ArrayList<>();
+    try (ExecutorService pool = Executors.newFixedThreadPool(CLIENTS)) {
+      for (int c = 0; c < CLIENTS; c++) {
+        String memberId = "gc-member-" + c;
+        String bookId = "gc-book-" + c;
+        clients.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  return List.of(borrow(bookId, memberId), borrow("gc-hot", memberId));
+                }));
+      }
+      start.countDown();
+      int hotWinners = 0;
+      for (Future<List<ResultResponse>> client : clients) {
+        List<ResultResponse> results = client.get();
+        assertThat(results.get(0).ok()).isTrue();
+        hotWinners += results.get(1).ok() ? 1 : 0;
+      }
+      assertThat(hotWinners).isEqualTo(1);
+    }
+
+    long commands = groupCommit.commands() - commandsBefore;
+    assertThat(commands).isEqualTo(2L * CLIENTS);
+    assertThat(groupCommit.batches() - batchesBefore).isLessThan(commands);
+    assertThat(library.reconcileLoanCounters()).isZero();
+
+    ResultWithNextResponse returned =
+        rest.postForObject(
+            url("/api/return"),
+            new ReturnRequest("gc-book-0", "gc-member-0"),
+            ResultWithNextResponse.class);
+    assertThat(returned.ok()).isTrue();
+  }
+
+  @Test
+  void aCommandThatBreaksItsBatchOnlyFailsItsOwnCaller() throws Exception {
+    library.createMember("gc-isolated", "Isolated");
+    for (int b = 0; b < 3; b++) {
+      library.createBook("gc-isolated-" + b, "Isolated " + b);
+    }
+    Function<List<BatchCommand>, List<BatchOutcome>> runner =
+        commands -> {
+          if (commands.stream().anyMatch(c -> c.bookId().equals("gc-poison"))) {
+            throw new IllegalStateException("poison");
+          }
+          return library.runBatch(commands);
+        };
+
+    // a long window so every command lands in the first batch
+    try (GroupCommitExecutor executor = new GroupCommitExecutor(runner, 64, 200_000, 30_000)) {
+      List<CompletableFuture<BatchOutcome>> borrows = new ArrayList<>();
+      borrows.add(executor.submit(borrowCommand("gc-isolated-0")));
+      CompletableFuture<BatchOutcome> poison = executor.submit(borrowCommand("gc-poison"));
+      borrows.add(executor.submit(borrowCommand("gc-isolated-1")));
+      borrows.add(executor.submit(borrowCommand("gc-isolated-2")));
+
+      for (CompletableFuture<BatchOutcome> borrow : borrows) {
+        assertThat(borrow.get().ok()).isTrue();
+      }
+      assertThatThrownBy(poison::join).hasCauseInstanceOf(IllegalStateException.class);
+      assertThat(executor.batches()).isEqualTo(1);
+      assertThat(executor.isolatedReruns()).isEqualTo(4);
+    }
+    for (int b = 0; b < 3; b++) {
+      assertThat(library.findBook("gc-isolated-" + b).orElseThrow().getLoanedTo())
+          .isEqualTo("gc-isolated");
+    }
+  }
+
+  @Test
+  void groupedAndDirectBorrowsOfOneBookTakeTurns() throws Exception {
+    library.createBook("gc-mixed", "Mixed");
+    for (int c = 0; c < CLIENTS; c++) {
+      library.createMember("gc-mixed-" + c, "Mixed " + c);
+    }
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<LibraryService.Result>> clients = new ArrayList<>();
+    try (ExecutorService pool = Executors.newFixedThreadPool(CLIENTS)) {
+      for (int c = 0; c < CLIENTS; c++) {
+        String memberId = "gc-mixed-" + c;
+        boolean grouped = c % 2 == 0;
+        clients.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  if (grouped) {
+                    ResultResponse response = borrow("gc-mixed", memberId);
+                    return new LibraryService.Result(response.ok(), response.reason());
+                  }
+                  return library.borrowBook("gc-mixed", memberId);
+                }));
+      }
+      start.countDown();
+      int winners = 0;
+      for (Future<LibraryService.Result> client : clients) {
+        LibraryService.Result result = client.get();
+        if (result.ok()) {
+          winners++;
+        } else {
+          // a lost race is a business outcome, never a conflict surfaced as an error
+          assertThat(result.reason()).isEqualTo("BOOK_UNAVAILABLE");
+        }
+      }
+      assertThat(winners).isEqualTo(1);
+    }
+    assertThat(library.findBook("gc-mixed").orElseThrow().getLoanedTo()).startsWith("gc-mixed-");
+    assertThat(library.reconcileLoanCounters()).isZero();
+  }
+
+  @Test
+  void anErrorReachesItsCallerAndTheCommitterKeepsGoing() throws Exception {
+    library.createMember("gc-error", "Error");
+    library.createBook("gc-error-after", "After the error");
+    Function<List<BatchCommand>, List<BatchOutcome>> runner =
+        commands -> {
+          if (commands.stream().anyMatch(c -> c.bookId().equals("gc-error"))) {
+            throw new AssertionError("not an exception");
+          }
+          return library.runBatch(commands);
+        };
+
+    try (GroupCommitExecutor executor = new GroupCommitExecutor(runner, 64, 0, 5_000)) {
+      assertThatThrownBy(
+              () -> executor.execute(new BatchCommand(Operation.BORROW, "gc-error", "gc-error")))
+          .isInstanceOf(AssertionError.class);
+      assertThat(
+              executor
+                  .execute(new BatchCommand(Operation.BORROW, "gc-error-after", "gc-error"))
+                  .ok())
+          .isTrue();
+    }
+  }
+
+  @Test
+  void aCallerStopsWaitingAfterTheTimeout() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Function<List<BatchCommand>, List<BatchOutcome>> runner =
+        commands -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return commands.stream().map(c -> new BatchOutcome(true, null, null)).toList();
+        };
+
+    try (GroupCommitExecutor executor = new GroupCommitExecutor(runner, 64, 0, 200)) {
+      assertThatThrownBy(
+              () -> executor.execute(new BatchCommand(Operation.BORROW, "gc-slow", "gc-slow")))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessage("group commit timed out");
+      release.countDown();
+    }
+  }
+
+  @Test
+  void rolledBackChangesLeaveTheIndexesAlone() {
+    library.createMember("gc-rollback", "Rollback");
+    library.createBook("gc-rollback-loan", "Rollback Loan");
+    library.createBook("gc-rollback-title", "Rollback Title");
+    library.borrowBook("gc-rollback-loan", "gc-rollback");
+    library.extendLoan("gc-rollback-loan", -30);
+    LocalDate today = LocalDate.now();
+    assertThat(library.overdueBooks(today)).extracting(BookView::id).contains("gc-rollback-loan");
+    assertThat(library.searchBooks("rollback title", null, null)).hasSize(1);
+
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    assertThatThrownBy(
+            () ->
+                tx.executeWithoutResult(
+                    status -> {
+                      library.runBatch(
+                          List.of(
+                              new BatchCommand(
+                                  Operation.RETURN, "gc-rollback-loan", "gc-rollback")));
+                      library.deleteBook("gc-rollback-title");
+                      throw new IllegalStateException("abort");
+                    }))
+        .hasMessage("abort");
+
+    assertThat(library.overdueBooks(today)).extracting(BookView::id).contains("gc-rollback-loan");
+    assertThat(library.searchBooks("rollback title", null, null)).hasSize(1);
+  }
+
+  private ResultResponse borrow(String bookId, String memberId) {
+    return rest.postForObject(
+        url("/api/borrow"), new BorrowRequest(bookId, memberId), ResultResponse.class);
+  }
+
+  private static BatchCommand borrowCommand(String bookId) {
+    return new BatchCommand(Operation.BORROW, bookId, "gc-isolated");
+  }
+
+  private String url(String path) {
+    return "http://localhost:" + port + path;
+  }
+}
@@ -0,0 +1,89 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.dto.BooksResponse;
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CreateBookRequest;
+import com.nortal.library.api.dto.CreateMemberRequest;
+import com.nortal.library.api.dto.LoanExtensionRequest;
+import com.nortal.library.api.dto.ReserveRequest;
+import com.nortal.library.api.dto.ResultResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/** List endpoints must not issue a query per book to load reservation queues. */
+class ListQueryCountTest extends StatementCountingTest {
+
+  private static final int BOOKS = 40;
+  private static final long MAX_STATEMENTS = 4;
+  private static final int MAX_PAGE = 500;
+  // library.lookup.batch-size
+  private static final int LOOKUP_BATCH = 500;
+
+  @BeforeEach
+  void seedQueuedBooks() {
+    for (int i = 0; i < BOOKS; i++) {
+      String holder = "lc-holder-" + i;
+      String bookId = "lc-book-" + i;
+      post("/api/members", new CreateMemberRequest(holder, "Holder " + i));
+      post("/api/books", new CreateBookRequest(bookId, "List Count " + i));
+      post("/api/borrow", new BorrowRequest(bookId, holder));
+      post("/api/reserve", new ReserveRequest(bookId, "m1"));
+      post("/api/extend", new LoanExtensionRequest(bookId, -30));
+    }
+  }
+
+  @Test
+  void listEndpointsUseABoundedNumberOfStatements() {
+    assertBounded("/api/books");
+    // the shared database holds other tests' books too, several hundred of them ahead of these ids
+    assertBounded("/api/books?limit=" + MAX_PAGE);
+    assertBounded("/api/books/search?titleContains=list");
+    assertBounded("/api/overdue");
+    assertBounded("/api/overdue?limit=" + 2 * BOOKS);
+  }
+
+  @Test
+  void searchesMatchingMoreThanOneLookupBatchKeepEachQueryBounded() {
+    int matches = LOOKUP_BATCH + 100;
+    StringBuilder csv = new StringBuilder("id,title\n");
+    for (int i = 0; i < matches; i++) {
+      csv.append("lc-wide-").append(i).append(",Widesearch ").append(i).append('\n');
+    }
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.parseMediaType("text/csv"));
+    rest.postForObject(
+        url("/api/import/books"), new HttpEntity<>(csv.toString(), headers), String.class);
+
+    BooksResponse[] response = new BooksResponse[1];
+    int parameters =
+        statements.mostParametersDuring(
+            () ->
+                response[0] =
+                    rest.getForObject(
+                        url("/api/books/search?titleContains=widesearch"), BooksResponse.class));
+
+    assertThat(response[0].items()).hasSize(matches);
+    assertThat(parameters).isLessThanOrEqualTo(LOOKUP_BATCH);
+  }
+
+  private void assertBounded(String path) {
+    BooksResponse[] response = new BooksResponse[1];
+    long executed =
+        statements.countDuring(
+            () -> response[0] = rest.getForObject(url(path), BooksResponse.class));
+    assertThat(response[0].items())
+        .filteredOn(b -> b.id().startsWith("lc-book-"))
+        .hasSize(BOOKS)
+        .allSatisfy(b -> assertThat(b.reservationQueue()).containsExactly("m1"));
+    assertThat(executed).as(path).isLessThanOrEqualTo(MAX_STATEMENTS);
+  }
+
+  private void post(String path, Object body) {
+    rest.postForObject(url(path), body, ResultResponse.class);
+  }
+}
@@ -0,0 +1,49 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CreateBookRequest;
+import com.nortal.library.api.dto.CreateMemberRequest;
+import com.nortal.library.api.dto.MemberSummaryResponse;
+import com.nortal.library.api.dto.ReserveRequest;
+import com.nortal.library.api.dto.ResultResponse;
+import org.junit.jupiter.api.Test;
+
+class MemberSummaryQueryCountTest extends StatementCountingTest {
+
+  @Test
+  void summaryStatementCountDoesNotGrowWithReservations() {
+    post("/api/members", new CreateMemberRequest("qc-reader", "Reader"));
+
+    reserveNewBook(0);
+    long withOne = statements.countDuring(this::summary);
+
+    for (int i = 1; i < 30; i++) {
+      reserveNewBook(i);
+    }
+    long withThirty = statements.countDuring(this::summary);
+
+    assertThat(summary().reservations()).hasSize(30);
+    assertThat(summary().reservations()).allSatisfy(r -> assertThat(r.title()).isNotNull());
+    assertThat(withThirty).isEqualTo(withOne);
+  }
+
+  private void reserveNewBook(int i) {
+    String bookId = "qc-book-" + i;
+    // every holder stays under the borrow limit
+    String holderId = "qc-holder-" + i;
+    post("/api/members", new CreateMemberRequest(holderId, "Holder " + i));
+    post("/api/books", new CreateBookRequest(bookId, "Query Count " + i));
+    post("/api/borrow", new BorrowRequest(bookId, holderId));
+    post("/api/reserve", new ReserveRequest(bookId, "qc-reader"));
+  }
+
+  private MemberSummaryResponse summary() {
+    return rest.getForObject(url("/api/members/qc-reader/summary"), MemberSummaryResponse.class);
+  }
+
+  private void post(String path, Object body) {
+    rest.postForObject(url(path), body, ResultResponse.class);
+  }
+}
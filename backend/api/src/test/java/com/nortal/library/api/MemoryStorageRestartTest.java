@@ -0,0 +1,141 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.port.BookRepository;
+import com.nortal.library.memory.MemoryStore;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** The {@code memory} profile rebuilds its state from the journal when the application restarts. */
+class MemoryStorageRestartTest {
+
+  @TempDir Path dir;
+
+  @Test
+  void loansQueuesAndCountersSurviveRestart() {
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      library.createMember("ms-holder", "Holder");
+      library.createMember("ms-first", "First");
+      library.createMember("ms-second", "Second");
+      library.createBook("ms-book", "Journaled");
+      library.borrowBook("ms-book", "ms-holder");
+      library.reserveBook("ms-book", "ms-first");
+      library.reserveBook("ms-book", "ms-second");
+    }
+
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      assertThat(library.findBook("ms-book").map(Book::getLoanedTo)).contains("ms-holder");
+      assertThat(library.reservationQueues(List.of("ms-book")))
+          .containsEntry("ms-book", List.of("ms-first", "ms-second"));
+      assertThat(library.reconcileLoanCounters()).isZero();
+
+      assertThat(library.returnBook("ms-book", "ms-holder").nextMemberId()).isEqualTo("ms-first");
+    }
+
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      assertThat(library.findBook("ms-book").map(Book::getLoanedTo)).contains("ms-first");
+      assertThat(library.reservationQueues(List.of("ms-book")))
+          .containsEntry("ms-book", List.of("ms-second"));
+    }
+  }
+
+  @Test
+  void tornTailIsDroppedOnReplay() throws Exception {
+    try (ConfigurableApplicationContext app = start()) {
+      app.getBean(LibraryService.class).createBook("ms-kept", "Kept");
+    }
+    // a crash halfway through a record: its length made it to disk, the rest did not
+    Files.write(
+        journal(),
+        ByteBuffer.allocate(6).putInt(64).put((byte) 1).put((byte) 0).array(),
+        StandardOpenOption.APPEND);
+
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      assertThat(library.findBook("ms-kept")).isPresent();
+      library.createBook("ms-after", "After");
+    }
+
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      assertThat(library.findBook("ms-kept")).isPresent();
+      assertThat(library.findBook("ms-after")).isPresent();
+    }
+  }
+
+  @Test
+  void rolledBackWritesAreUndoneAndNotJournaled() {
+    try (ConfigurableApplicationContext app = start()) {
+      BookRepository books = app.getBean(BookRepository.class);
+      TransactionTemplate tx =
+          new TransactionTemplate(app.getBean(PlatformTransactionManager.class));
+      assertThatThrownBy(
+              () ->
+                  tx.executeWithoutResult(
+                      status -> {
+                        books.save(new Book("ms-undone", "Undone"));
+                        books.enqueue("ms-undone", "m1");
+                        throw new IllegalStateException("abort");
+                      }))
+          .hasMessage("abort");
+
+      assertThat(books.existsById("ms-undone")).isFalse();
+      assertThat(books.isQueued("ms-undone", "m1")).isFalse();
+    }
+
+    try (ConfigurableApplicationContext app = start()) {
+      assertThat(app.getBean(BookRepository.class).existsById("ms-undone")).isFalse();
+    }
+  }
+
+  @Test
+  void aCommitTheJournalRejectsIsUndone() throws Exception {
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      library.createBook("ms-durable", "Durable");
+      app.getBean(MemoryStore.class).close();
+
+      assertThatThrownBy(() -> library.createBook("ms-lost", "Lost"))
+          .isInstanceOf(IllegalStateException.class);
+      assertThatThrownBy(() -> library.updateBook("ms-durable", "Renamed"))
+          .isInstanceOf(IllegalStateException.class);
+
+      assertThat(library.findBook("ms-lost")).isEmpty();
+      assertThat(library.findBook("ms-durable").map(Book::getTitle)).contains("Durable");
+    }
+
+    try (ConfigurableApplicationContext app = start()) {
+      LibraryService library = app.getBean(LibraryService.class);
+      assertThat(library.findBook("ms-durable").map(Book::getTitle)).contains("Durable");
+      assertThat(library.findBook("ms-lost")).isEmpty();
+    }
+  }
+
+  private Path journal() {
+    return dir.resolve("library.journal");
+  }
+
+  private ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(LibraryApplication.class)
+        .profiles("memory")
+        .properties("server.port=0", "logging.level.com.nortal.library=INFO")
+        // as an argument, so it outranks the path in application-memory.yaml
+        .run("--library.memory.journal-path=" + journal());
+  }
+}
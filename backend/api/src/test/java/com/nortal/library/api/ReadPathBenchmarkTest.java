@@ -0,0 +1,93 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Latency and server-side allocation per request of the list, search and overdue endpoints over a
+ * seeded catalog. Allocation is what the Tomcat worker threads allocated while serving, so the
+ * client's own parsing does not count.
+ */
+@Tag("benchmark")
+class ReadPathBenchmarkTest {
+
+  private static final int WARMUP = 5;
+  private static final int REQUESTS = 20;
+  private static final List<String> PATHS =
+      List.of(
+          "/api/books",
+          "/api/books?limit=500",
+          "/api/books/search?titleContains=garden",
+          "/api/books/search?available=false",
+          "/api/overdue",
+          "/api/overdue?limit=500",
+          "/api/members",
+          "/api/members?limit=500");
+
+  @Test
+  void readEndpointsOverASeededCatalog() throws Exception {
+    String[] args = {
+      "--spring.datasource.url=jdbc:h2:mem:read-path;DB_CLOSE_DELAY=-1",
+      "--decorator.datasource.p6spy.enable-logging=false",
+      "--library.seed.members=20000",
+      "--library.seed.books=100000",
+      "--library.seed.reservations=20000"
+    };
+    try (ConfigurableApplicationContext app =
+            new SpringApplicationBuilder(LibraryApplication.class)
+                .properties("server.port=0", "logging.level.com.nortal.library=INFO")
+                .profiles("seed")
+                .run(args);
+        HttpClient http = HttpClient.newHttpClient()) {
+      String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+      System.out.printf(
+          "%n%-40s %10s %10s %10s %14s%n", "endpoint", "bytes", "p50 ms", "p90 ms", "alloc KB/req");
+      for (String path : PATHS) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).build();
+        for (int i = 0; i < WARMUP; i++) {
+          http.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+        long[] latencies = new long[REQUESTS];
+        long size = 0;
+        long allocatedBefore = serverAllocatedBytes();
+        for (int i = 0; i < REQUESTS; i++) {
+          long start = System.nanoTime();
+          HttpResponse<byte[]> response =
+              http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+          latencies[i] = System.nanoTime() - start;
+          assertThat(response.statusCode()).isEqualTo(200);
+          size = response.body().length;
+        }
+        long allocated = serverAllocatedBytes() - allocatedBefore;
+        Arrays.sort(latencies);
+        System.out.printf(
+            "%-40s %10d %10.1f %10.1f %14d%n",
+            path,
+            size,
+            latencies[REQUESTS / 2] / 1e6,
+            latencies[REQUESTS * 9 / 10] / 1e6,
+            allocated / REQUESTS / 1024);
+      }
+    }
+  }
+
+  private static long serverAllocatedBytes() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(t -> t.getName().startsWith("http-nio-"))
+        .mapToLong(t -> Math.max(0, threads.getThreadAllocatedBytes(t.threadId())))
+        .sum();
+  }
+}
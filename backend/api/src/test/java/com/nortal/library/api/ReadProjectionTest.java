@@ -0,0 +1,72 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CreateBookRequest;
+import com.nortal.library.api.dto.CreateMemberRequest;
+import com.nortal.library.api.dto.LoanExtensionRequest;
+import com.nortal.library.api.dto.ResultResponse;
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.Member;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+/** List, search and overdue reads come from projections: no entity is loaded, nothing flushed. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:read-projection;DB_CLOSE_DELAY=-1",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@DirtiesContext
+class ReadProjectionTest {
+
+  @LocalServerPort int port;
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  private final TestRestTemplate rest = new TestRestTemplate();
+
+  @Test
+  void readEndpointsLoadNoEntities() {
+    post("/api/members", new CreateMemberRequest("rp-holder", "Read Projection"));
+    post("/api/books", new CreateBookRequest("rp-book", "Read Projection"));
+    post("/api/borrow", new BorrowRequest("rp-book", "rp-holder"));
+    post("/api/extend", new LoanExtensionRequest("rp-book", -30));
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    for (String path :
+        new String[] {
+          "/api/books",
+          "/api/books?limit=10",
+          "/api/books/search?titleContains=projection",
+          "/api/overdue",
+          "/api/overdue?limit=10",
+          "/api/members",
+          "/api/members?limit=10"
+        }) {
+      assertThat(rest.getForEntity(url(path), String.class).getBody()).as(path).contains("rp-");
+    }
+
+    assertThat(statistics.getEntityStatistics(Book.class.getName()).getLoadCount()).isZero();
+    assertThat(statistics.getEntityStatistics(Member.class.getName()).getLoadCount()).isZero();
+    assertThat(statistics.getFlushCount()).isZero();
+  }
+
+  private void post(String path, Object body) {
+    rest.postForObject(url(path), body, ResultResponse.class);
+  }
+
+  private String url(String path) {
+    return "http://localhost:" + port + path;
+  }
+}
@@ -0,0 +1,134 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.dto.BookResponse;
+import com.nortal.library.api.dto.BooksResponse;
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CreateBookRequest;
+import com.nortal.library.api.dto.CreateMemberRequest;
+import com.nortal.library.api.dto.MemberSummaryResponse;
+import com.nortal.library.api.dto.ResultResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Reads against a stand-in replica that applies each commit a second late: other readers see the
+ * old copy, the writer sees its own write, and a stalled replica is bypassed.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+      "library.replica.enabled=true",
+      "library.replica.stand-in.enabled=true",
+      // long enough for the stalled-replica test to hold the replayer without failing it
+      "library.replica.url=jdbc:h2:mem:replica-copy;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000",
+      "library.replica.stand-in.delay-ms=1000",
+      "library.replica.max-lag-ms=3000",
+      "library.replica.heartbeat-ms=50"
+    })
+@DirtiesContext
+class ReplicaRoutingTest {
+
+  private static final long TIMEOUT_MILLIS = 15_000;
+
+  @LocalServerPort int port;
+
+  @Autowired MeterRegistry registry;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  DataSource replica;
+
+  private final TestRestTemplate rest = new TestRestTemplate();
+
+  @Test
+  void othersReadTheReplicaWhileTheWriterReadsItsOwnWrite() {
+    post("/api/members", new CreateMemberRequest("rr-member", "Replica Reader"));
+    post("/api/books", new CreateBookRequest("rr-book", "Replica Routing"));
+    awaitTrue(() -> book("rr-book").isPresent());
+    double replicaReads = reads("replica");
+
+    assertThat(post("/api/borrow", new BorrowRequest("rr-book", "rr-member")).ok()).isTrue();
+
+    // an anonymous list read is served the replica's copy, which has no loan yet
+    assertThat(book("rr-book").orElseThrow().loanedTo()).isNull();
+    assertThat(reads("replica")).isGreaterThan(replicaReads);
+    // the borrower's summary goes to the primary until the replica has caught up
+    MemberSummaryResponse summary =
+        rest.getForObject(url("/api/members/rr-member/summary"), MemberSummaryResponse.class);
+    assertThat(summary.loans())
+        .extracting(MemberSummaryResponse.BookLoanSummary::bookId)
+        .containsExactly("rr-book");
+    assertThat(reads("primary_own_writes")).isPositive();
+
+    awaitTrue(() -> "rr-member".equals(book("rr-book").orElseThrow().loanedTo()));
+  }
+
+  @Test
+  void readsGoToThePrimaryWhileTheReplicaIsTooFarBehind() throws Exception {
+    awaitTrue(() -> lagSeconds() < 3);
+    try (Connection blocker = replica.getConnection();
+        Statement statement = blocker.createStatement()) {
+      // holding the heartbeat row stops the replayer at the next heartbeat
+      blocker.setAutoCommit(false);
+      statement.executeUpdate("update replica_heartbeat set position = position");
+
+      post("/api/books", new CreateBookRequest("rr-stalled", "Replica Routing Stalled"));
+      // only the primary has the book, and it is read from there once the lag passes 3 s
+      awaitTrue(() -> book("rr-stalled").isPresent());
+      assertThat(lagSeconds()).isGreaterThan(3);
+      assertThat(reads("primary_lagging")).isPositive();
+
+      blocker.rollback();
+    }
+    awaitTrue(() -> lagSeconds() < 3);
+  }
+
+  private Optional<BookResponse> book(String id) {
+    BooksResponse books =
+        rest.getForObject(url("/api/books/search?titleContains=replica"), BooksResponse.class);
+    return books.items().stream().filter(b -> b.id().equals(id)).findFirst();
+  }
+
+  private double reads(String route) {
+    return registry.get("library.replica.reads").tag("route", route).counter().count();
+  }
+
+  private double lagSeconds() {
+    return registry.get("library.replica.lag").gauge().value();
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (!condition.getAsBoolean()) {
+      assertThat(System.currentTimeMillis()).as("timed out").isLessThan(deadline);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private ResultResponse post(String path, Object body) {
+    return rest.postForObject(url(path), body, ResultResponse.class);
+  }
+
+  private String url(String path) {
+    return "http://localhost:" + port + path;
+  }
+}
@@ -0,0 +1,77 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * schema.sql numbers the rows of an old {@code @OrderColumn} queue table in the order they were
+ * inserted and takes that as queue order. This replays how Hibernate kept that table - appends
+ * insert at the next position, removals shift the later members down in place and delete the last
+ * row - and checks the migrated queues come out in position order.
+ */
+class ReservationMigrationTest {
+
+  @Test
+  void migratedQueuesKeepTheirPositionOrder() throws Exception {
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:reservation-migration")) {
+      JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+      jdbc.execute(
+          "create table books (id varchar(255) primary key, title varchar(255) not null,"
+              + " loaned_to varchar(255), due_date date)");
+      jdbc.execute(
+          "create table book_reservations (book_id varchar(255) not null,"
+              + " position integer not null, member_id varchar(255),"
+              + " constraint fk_book_reservation_book foreign key (book_id) references books (id))");
+      jdbc.update("insert into books (id, title) values ('b1', 'One'), ('b2', 'Two')");
+
+      // b1: a, b, c queued; b2 queues x in between; a leaves from the head; d joins the back
+      append(jdbc, "b1", 0, "a");
+      append(jdbc, "b1", 1, "b");
+      append(jdbc, "b2", 0, "x");
+      append(jdbc, "b1", 2, "c");
+      jdbc.update(
+          "update book_reservations set member_id = 'b' where book_id = 'b1' and position = 0");
+      jdbc.update(
+          "update book_reservations set member_id = 'c' where book_id = 'b1' and position = 1");
+      jdbc.update("delete from book_reservations where book_id = 'b1' and position = 2");
+      append(jdbc, "b1", 2, "d");
+      // b2: y joins, x leaves, z joins
+      append(jdbc, "b2", 1, "y");
+      jdbc.update(
+          "update book_reservations set member_id = 'y' where book_id = 'b2' and position = 0");
+      jdbc.update("delete from book_reservations where book_id = 'b2' and position = 1");
+      append(jdbc, "b2", 1, "z");
+
+      ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+
+      assertThat(queue(jdbc, "b1")).containsExactly("b", "c", "d");
+      assertThat(queue(jdbc, "b2")).containsExactly("y", "z");
+      // re-running the script on the migrated table changes nothing
+      ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+      assertThat(queue(jdbc, "b1")).containsExactly("b", "c", "d");
+    }
+  }
+
+  private static void append(JdbcTemplate jdbc, String bookId, int position, String memberId) {
+    jdbc.update(
+        "insert into book_reservations (book_id, position, member_id) values (?, ?, ?)",
+        bookId,
+        position,
+        memberId);
+  }
+
+  private static List<String> queue(JdbcTemplate jdbc, String bookId) {
+    return jdbc.queryForList(
+        "select member_id from book_reservations where book_id = ? order by seq",
+        String.class,
+        bookId);
+  }
+}
@@ -0,0 +1,113 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nortal.library.api.controller.RestExceptionHandler;
+import com.nortal.library.api.dto.ResultResponse;
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.port.BookRepository;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    properties = "spring.datasource.url=jdbc:h2:mem:reservation-queue;DB_CLOSE_DELAY=-1")
+class ReservationQueueTest {
+
+  @Autowired LibraryService library;
+
+  @Autowired BookRepository books;
+
+  @Autowired JdbcTemplate jdbc;
+
+  @Autowired PlatformTransactionManager transactionManager;
+
+  @Autowired RestExceptionHandler exceptionHandler;
+
+  @Test
+  void queueChangesBumpTheBookVersion() {
+    library.createBook("rq-versioned", "Versioned");
+    library.createMember("rq-holder", "Holder");
+    library.createMember("rq-waiter", "Waiter");
+    library.borrowBook("rq-versioned", "rq-holder");
+
+    long loaned = version("rq-versioned");
+    assertThat(library.reserveBook("rq-versioned", "rq-waiter").ok()).isTrue();
+    long reserved = version("rq-versioned");
+    assertThat(library.cancelReservation("rq-versioned", "rq-waiter").ok()).isTrue();
+
+    assertThat(reserved).isGreaterThan(loaned);
+    assertThat(version("rq-versioned")).isGreaterThan(reserved);
+  }
+
+  @Test
+  void aReservationRacingAnUncommittedOneIsAlreadyReserved() throws Exception {
+    library.createBook("rq-raced", "Raced");
+    library.createMember("rq-owner", "Owner");
+    library.createMember("rq-racer", "Racer");
+    library.borrowBook("rq-raced", "rq-owner");
+
+    // a second writer (another node, say) queues the member without the in-process stripe lock
+    CountDownLatch queued = new CountDownLatch(1);
+    CompletableFuture<Void> other =
+        CompletableFuture.runAsync(
+            () ->
+                new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(
+                        status -> {
+                          books.enqueue("rq-raced", "rq-racer");
+                          queued.countDown();
+                          sleep(300);
+                        }));
+    queued.await();
+
+    LibraryService.Result result = library.reserveBook("rq-raced", "rq-racer");
+    other.join();
+
+    assertThat(result.ok()).isFalse();
+    assertThat(result.reason()).isEqualTo("ALREADY_RESERVED");
+    assertThat(queue("rq-raced")).containsExactly("rq-racer");
+  }
+
+  @Test
+  void aDuplicateQueueEntryIsReportedAsAlreadyReserved() {
+    library.createBook("rq-duplicate", "Duplicate");
+    library.createMember("rq-twice", "Twice");
+    String insert = "insert into book_reservations (book_id, member_id) values (?, ?)";
+    jdbc.update(insert, "rq-duplicate", "rq-twice");
+
+    assertThatThrownBy(() -> jdbc.update(insert, "rq-duplicate", "rq-twice"))
+        .isInstanceOfSatisfying(
+            DataIntegrityViolationException.class,
+            e ->
+                assertThat(exceptionHandler.handleIntegrity(e).getBody())
+                    .isEqualTo(new ResultResponse(false, "ALREADY_RESERVED")));
+  }
+
+  private long version(String bookId) {
+    return jdbc.queryForObject("select version from books where id = ?", Long.class, bookId);
+  }
+
+  private List<String> queue(String bookId) {
+    return jdbc.queryForList(
+        "select member_id from book_reservations where book_id = ? order by seq",
+        String.class,
+        bookId);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.controller.RestExceptionHandler;
+import com.nortal.library.api.dto.ResultResponse;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+class RestExceptionHandlerTest {
+
+  private final RestExceptionHandler handler = new RestExceptionHandler();
+
+  @Test
+  void aPoolTimeoutIsBusy() {
+    ResponseEntity<ResultResponse> response =
+        handler.handleBusy(
+            new CannotCreateTransactionException(
+                "Could not open JPA EntityManager for transaction",
+                new SQLTransientConnectionException("Connection is not available")));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(response.getBody()).isEqualTo(new ResultResponse(false, "BUSY"));
+  }
+
+  @Test
+  void otherResourceFailuresAreErrors() {
+    ResponseEntity<ResultResponse> response =
+        handler.handleBusy(
+            new DataAccessResourceFailureException(
+                "Could not prepare statement", new SQLException("Database is already closed")));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    assertThat(response.getBody()).isEqualTo(new ResultResponse(false, "ERROR"));
+  }
+}
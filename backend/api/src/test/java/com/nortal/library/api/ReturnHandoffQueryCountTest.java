@@ -0,0 +1,70 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.dto.BookResponse;
+import com.nortal.library.api.dto.BooksResponse;
+import com.nortal.library.api.dto.BorrowRequest;
+import com.nortal.library.api.dto.CreateBookRequest;
+import com.nortal.library.api.dto.CreateMemberRequest;
+import com.nortal.library.api.dto.DeleteMemberRequest;
+import com.nortal.library.api.dto.ReserveRequest;
+import com.nortal.library.api.dto.ResultResponse;
+import com.nortal.library.api.dto.ResultWithNextResponse;
+import com.nortal.library.api.dto.ReturnRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+
+class ReturnHandoffQueryCountTest extends StatementCountingTest {
+
+  @Test
+  void handoffStatementCountDoesNotGrowWithSkippedMembers() {
+    long pastOne = returnPast(1, "hq-short");
+    long pastForty = returnPast(40, "hq-long");
+
+    assertThat(pastForty).isEqualTo(pastOne);
+  }
+
+  /** Returns a book whose queue holds {@code gone} deleted members ahead of one eligible one. */
+  private long returnPast(int gone, String bookId) {
+    post("/api/members", new CreateMemberRequest(bookId + "-holder", "Holder"));
+    post("/api/members", new CreateMemberRequest(bookId + "-next", "Next"));
+    post("/api/books", new CreateBookRequest(bookId, "Handoff"));
+    post("/api/borrow", new BorrowRequest(bookId, bookId + "-holder"));
+    for (int i = 0; i < gone; i++) {
+      String memberId = bookId + "-gone-" + i;
+      post("/api/members", new CreateMemberRequest(memberId, "Gone " + i));
+      post("/api/reserve", new ReserveRequest(bookId, memberId));
+      rest.exchange(
+          url("/api/members"),
+          HttpMethod.DELETE,
+          new HttpEntity<>(new DeleteMemberRequest(memberId)),
+          ResultResponse.class);
+    }
+    post("/api/reserve", new ReserveRequest(bookId, bookId + "-next"));
+
+    ResultWithNextResponse[] returned = new ResultWithNextResponse[1];
+    long executed =
+        statements.countDuring(
+            () ->
+                returned[0] =
+                    rest.postForObject(
+                        url("/api/return"),
+                        new ReturnRequest(bookId, bookId + "-holder"),
+                        ResultWithNextResponse.class));
+
+    assertThat(returned[0].nextMemberId()).isEqualTo(bookId + "-next");
+    BookResponse book =
+        rest.getForObject(url("/api/books"), BooksResponse.class).items().stream()
+            .filter(b -> b.id().equals(bookId))
+            .findFirst()
+            .orElseThrow();
+    assertThat(book.reservationQueue()).isEmpty();
+    return executed;
+  }
+
+  private void post(String path, Object body) {
+    rest.postForObject(url(path), body, ResultResponse.class);
+  }
+}
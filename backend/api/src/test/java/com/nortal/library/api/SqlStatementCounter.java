@@ -0,0 +1,44 @@
+package com.nortal.library.api;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every JDBC statement executed through the p6spy-decorated datasource, and the most bind
+ * parameters any one of them carried.
+ */
+class SqlStatementCounter extends SimpleJdbcEventListener {
+
+  private final AtomicLong executed = new AtomicLong();
+  private final AtomicInteger mostParameters = new AtomicInteger();
+
+  @Override
+  public void onAfterAnyExecute(
+      StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+    executed.incrementAndGet();
+    String sql = statementInformation.getSql();
+    if (sql != null) {
+      int parameters = (int) sql.chars().filter(c -> c == '?').count();
+      mostParameters.accumulateAndGet(parameters, Math::max);
+    }
+  }
+
+  long count() {
+    return executed.get();
+  }
+
+  long countDuring(Runnable action) {
+    long before = executed.get();
+    action.run();
+    return executed.get() - before;
+  }
+
+  int mostParametersDuring(Runnable action) {
+    mostParameters.set(0);
+    action.run();
+    return mostParameters.get();
+  }
+}
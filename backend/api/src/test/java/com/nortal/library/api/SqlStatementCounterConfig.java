@@ -0,0 +1,14 @@
+package com.nortal.library.api;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/** Registers a {@link SqlStatementCounter} with p6spy for tests that bound their statements. */
+@TestConfiguration
+class SqlStatementCounterConfig {
+
+  @Bean
+  SqlStatementCounter sqlStatementCounter() {
+    return new SqlStatementCounter();
+  }
+}
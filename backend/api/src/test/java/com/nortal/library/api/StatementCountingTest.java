@@ -0,0 +1,33 @@
+package com.nortal.library.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Base for HTTP tests that count SQL statements. Subclasses share this one configuration, so they
+ * run against a single cached context and in-memory database; each keeps to its own id prefix
+ * instead of relying on a fresh database.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1",
+      // small enough that BulkImportTest's rows span several batches
+      "library.import.batch-size=100"
+    })
+@Import(SqlStatementCounterConfig.class)
+abstract class StatementCountingTest {
+
+  @LocalServerPort int port;
+
+  @Autowired SqlStatementCounter statements;
+
+  final TestRestTemplate rest = new TestRestTemplate();
+
+  String url(String path) {
+    return "http://localhost:" + port + path;
+  }
+}
@@ -0,0 +1,109 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.core.LibraryService;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Borrow/return throughput of the JPA adapters on H2 against the in-memory store, with and without
+ * fsync on its journal. Each worker cycles its own book so the storage, not book contention, is
+ * what gets measured.
+ */
+@Tag("benchmark")
+class StorageEngineBenchmarkTest {
+
+  private static final int WORKERS = 8;
+  private static final long WARMUP_MILLIS = 1_000;
+  private static final long DURATION_MILLIS = 3_000;
+
+  @TempDir Path dir;
+
+  @Test
+  void borrowReturnThroughputPerStorage() throws Exception {
+    List<Run> runs = new ArrayList<>();
+    runs.add(
+        measure(
+            "default",
+            "jpa-h2",
+            "spring.datasource.url=jdbc:h2:mem:storage-benchmark;DB_CLOSE_DELAY=-1",
+            "decorator.datasource.p6spy.enable-logging=false"));
+    runs.add(measure("memory", "memory-fsync", "library.memory.fsync=true"));
+    runs.add(measure("memory", "memory-nosync", "library.memory.fsync=false"));
+
+    System.out.printf("%n%-14s %12s %10s%n", "storage", "cycles/s", "cycles");
+    for (Run r : runs) {
+      System.out.printf("%-14s %12.0f %10d%n", r.name, r.cyclesPerSecond(), r.cycles);
+    }
+    for (Run r : runs) {
+      assertThat(r.cycles).isPositive();
+      assertThat(r.drifted).isZero();
+    }
+  }
+
+  private Run measure(String profile, String name, String... properties) throws Exception {
+    SpringApplicationBuilder builder =
+        new SpringApplicationBuilder(LibraryApplication.class)
+            .properties("server.port=0", "logging.level.com.nortal.library=INFO")
+            .profiles(profile);
+    List<String> args = new ArrayList<>();
+    args.add("--library.memory.journal-path=" + dir.resolve(name + ".journal"));
+    for (String property : properties) {
+      args.add("--" + property);
+    }
+    try (ConfigurableApplicationContext app = builder.run(args.toArray(String[]::new))) {
+      LibraryService library = app.getBean(LibraryService.class);
+      for (int w = 0; w < WORKERS; w++) {
+        library.createMember("se-member-" + w, "Worker " + w);
+        library.createBook("se-book-" + w, "Cycled " + w);
+      }
+      cycle(library, WARMUP_MILLIS);
+      long cycles = cycle(library, DURATION_MILLIS);
+      return new Run(name, cycles, library.reconcileLoanCounters());
+    }
+  }
+
+  /** Borrows and returns each worker's book until the time is up; returns the completed cycles. */
+  private long cycle(LibraryService library, long millis) throws Exception {
+    AtomicLong cycles = new AtomicLong();
+    long deadline = System.currentTimeMillis() + millis;
+    ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+    List<Future<?>> workers = new ArrayList<>();
+    for (int w = 0; w < WORKERS; w++) {
+      String memberId = "se-member-" + w;
+      String bookId = "se-book-" + w;
+      workers.add(
+          pool.submit(
+              () -> {
+                while (System.currentTimeMillis() < deadline) {
+                  if (library.borrowBook(bookId, memberId).ok()
+                      && library.returnBook(bookId, memberId).ok()) {
+                    cycles.incrementAndGet();
+                  }
+                }
+              }));
+    }
+    for (Future<?> worker : workers) {
+      worker.get();
+    }
+    pool.shutdown();
+    return cycles.get();
+  }
+
+  private record Run(String name, long cycles, int drifted) {
+    double cyclesPerSecond() {
+      return cycles * 1000.0 / DURATION_MILLIS;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.api.config.SyntheticCatalog;
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.domain.Member;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:synthetic-seed;DB_CLOSE_DELAY=-1",
+      "library.seed.members=300",
+      "library.seed.books=2000",
+      "library.seed.reservations=1500",
+      "library.seed.seed=7",
+      "library.seed.threads=4",
+      "library.seed.batch-size=128"
+    })
+@ActiveProfiles("seed")
+class SyntheticSeedTest {
+
+  private static final SyntheticCatalog.Settings SETTINGS =
+      new SyntheticCatalog.Settings(300, 2000, 0.3, 0.2, 1500, 1.0, 7);
+
+  @Autowired LibraryService library;
+
+  @Test
+  void theSameSeedPlansTheSameCatalog() {
+    LocalDate today = LocalDate.now();
+    SyntheticCatalog first = SyntheticCatalog.plan(SETTINGS, today);
+    SyntheticCatalog second = SyntheticCatalog.plan(SETTINGS, today);
+
+    assertThat(describe(second.books(0, 2000))).isEqualTo(describe(first.books(0, 2000)));
+    assertThat(second.members(0, 300))
+        .extracting(Member::getName)
+        .isEqualTo(first.members(0, 300).stream().map(Member::getName).toList());
+    assertThat(second.queueSlices(100)).isEqualTo(first.queueSlices(100));
+    // slices are cut from the same plan, whatever their bounds
+    assertThat(describe(first.books(1000, 1500)))
+        .isEqualTo(describe(first.books(0, 2000)).subList(1000, 1500));
+
+    SyntheticCatalog other =
+        SyntheticCatalog.plan(
+            new SyntheticCatalog.Settings(300, 2000, 0.3, 0.2, 1500, 1.0, 8), today);
+    assertThat(describe(other.books(0, 2000))).isNotEqualTo(describe(first.books(0, 2000)));
+  }
+
+  @Test
+  void seededDatabaseMatchesThePlanAndKeepsTheLoanRules() {
+    SyntheticCatalog plan = SyntheticCatalog.plan(SETTINGS, LocalDate.now());
+
+    assertThat(library.allMembers()).hasSize(300);
+    List<BookView> books = library.allBooks();
+    assertThat(books).hasSize(2000);
+    assertThat(library.findBook("b1")).isEmpty();
+    assertThat(books.stream().map(SyntheticSeedTest::describe).toList())
+        .isEqualTo(describe(plan.books(0, 2000)));
+
+    Map<String, Long> loansPerMember =
+        books.stream()
+            .filter(b -> b.loanedTo() != null)
+            .collect(Collectors.groupingBy(BookView::loanedTo, Collectors.counting()));
+    assertThat(loansPerMember.values()).allMatch(n -> n <= LibraryService.MAX_LOANS);
+    assertThat(plan.loans()).isBetween(500, 700);
+    assertThat(library.overdueBooks(LocalDate.now())).hasSize(plan.overdue()).isNotEmpty();
+    // the counters were written with the members and agree with the loans
+    assertThat(library.reconcileLoanCounters()).isZero();
+
+    Map<String, List<String>> queues =
+        library.reservationQueues(IntStream.range(0, 2000).mapToObj(plan::bookId).toList());
+    queues.values().removeIf(List::isEmpty);
+    assertThat(queues.values().stream().mapToInt(List::size).sum()).isEqualTo(plan.queued());
+    int longest = queues.values().stream().mapToInt(List::size).max().orElseThrow();
+    assertThat(longest).isEqualTo(plan.longestQueue());
+    // skewed: the most reserved book has many times the average queue
+    assertThat(longest * queues.size()).isGreaterThan(10 * plan.queued());
+    Map<String, List<String>> planned = plan.queueSlices(Integer.MAX_VALUE).get(0);
+    assertThat(queues).isEqualTo(planned);
+  }
+
+  private static List<String> describe(List<Book> books) {
+    return books.stream()
+        .map(b -> new BookView(b.getId(), b.getTitle(), b.getLoanedTo(), b.getDueDate()))
+        .map(SyntheticSeedTest::describe)
+        .toList();
+  }
+
+  private static String describe(BookView b) {
+    return b.id() + "|" + b.title() + "|" + b.loanedTo() + "|" + b.dueDate();
+  }
+}
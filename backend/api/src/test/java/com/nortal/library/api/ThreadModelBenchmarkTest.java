@@ -0,0 +1,153 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.core.LibraryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Borrow/return over HTTP from many more concurrent clients than Tomcat has platform worker
+ * threads, served once by the platform pool and once on virtual threads. Both runs share the same
+ * ten-connection pool, so the comparison is about how waiting requests are held, not about how much
+ * JDBC work can run at once.
+ */
+@Tag("benchmark")
+class ThreadModelBenchmarkTest {
+
+  private static final int CLIENTS = 1_000;
+  private static final long WARMUP_MILLIS = 2_000;
+  private static final long DURATION_MILLIS = 5_000;
+
+  @Test
+  void borrowReturnOverHttpPerThreadModel() throws Exception {
+    List<Run> runs = new ArrayList<>();
+    runs.add(measure("default", "platform"));
+    runs.add(measure("virtual", "virtual"));
+
+    System.out.printf(
+        "%n%-10s %8s %12s %9s %9s %9s %8s %7s%n",
+        "threads", "clients", "requests/s", "p50 ms", "p99 ms", "max ms", "errors", "pinned");
+    for (Run r : runs) {
+      System.out.printf(
+          "%-10s %8d %12.0f %9.1f %9.1f %9.1f %8d %7d%n",
+          r.name,
+          CLIENTS,
+          r.requestsPerSecond(),
+          r.percentileMillis(50),
+          r.percentileMillis(99),
+          r.percentileMillis(100),
+          r.errors,
+          r.pinned);
+    }
+    for (Run r : runs) {
+      assertThat(r.latencies).isNotEmpty();
+      assertThat(r.drifted).isZero();
+    }
+  }
+
+  private Run measure(String profile, String name) throws Exception {
+    SpringApplicationBuilder builder =
+        new SpringApplicationBuilder(LibraryApplication.class)
+            .properties("server.port=0", "logging.level.com.nortal.library=INFO")
+            .profiles(profile);
+    String[] args = {
+      "--spring.datasource.url=jdbc:h2:mem:thread-model-" + name + ";DB_CLOSE_DELAY=-1",
+      "--decorator.datasource.p6spy.enable-logging=false"
+    };
+    try (ConfigurableApplicationContext app = builder.run(args)) {
+      LibraryService library = app.getBean(LibraryService.class);
+      for (int c = 0; c < CLIENTS; c++) {
+        library.createMember("tm-member-" + c, "Client " + c);
+        library.createBook("tm-book-" + c, "Cycled " + c);
+      }
+      String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+      drive(baseUrl, WARMUP_MILLIS);
+      Run run = drive(baseUrl, DURATION_MILLIS);
+      Timer pinned = app.getBean(MeterRegistry.class).find("library.threads.pinned").timer();
+      return run.finish(name, library.reconcileLoanCounters(), pinned == null ? 0 : pinned.count());
+    }
+  }
+
+  /** Each client borrows and returns its own book until the time is up. */
+  private Run drive(String baseUrl, long millis) throws Exception {
+    long deadline = System.currentTimeMillis() + millis;
+    List<Future<long[]>> clients = new ArrayList<>();
+    int[] errors = new int[CLIENTS];
+    try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder().executor(pool).build()) {
+      for (int c = 0; c < CLIENTS; c++) {
+        int client = c;
+        String body =
+            "{\"bookId\":\"tm-book-" + client + "\",\"memberId\":\"tm-member-" + client + "\"}";
+        clients.add(
+            pool.submit(
+                () -> {
+                  long[] latencies = new long[1024];
+                  int count = 0;
+                  while (System.currentTimeMillis() < deadline) {
+                    for (String path : List.of("/api/borrow", "/api/return")) {
+                      long start = System.nanoTime();
+                      HttpResponse<String> response =
+                          http.send(
+                              HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                  .header("Content-Type", "application/json")
+                                  .POST(HttpRequest.BodyPublishers.ofString(body))
+                                  .build(),
+                              HttpResponse.BodyHandlers.ofString());
+                      if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                      }
+                      latencies[count++] = System.nanoTime() - start;
+                      if (response.statusCode() != 200
+                          || !response.body().contains("\"ok\":true")) {
+                        errors[client]++;
+                      }
+                    }
+                  }
+                  return Arrays.copyOf(latencies, count);
+                }));
+      }
+      long[] all = new long[0];
+      for (Future<long[]> client : clients) {
+        long[] latencies = client.get();
+        int from = all.length;
+        all = Arrays.copyOf(all, from + latencies.length);
+        System.arraycopy(latencies, 0, all, from, latencies.length);
+      }
+      Arrays.sort(all);
+      return new Run(null, all, millis, Arrays.stream(errors).sum(), 0, 0);
+    }
+  }
+
+  private record Run(
+      String name, long[] latencies, long millis, int errors, int drifted, long pinned) {
+
+    Run finish(String name, int drifted, long pinned) {
+      return new Run(name, latencies, millis, errors, drifted, pinned);
+    }
+
+    double requestsPerSecond() {
+      return latencies.length * 1000.0 / millis;
+    }
+
+    double percentileMillis(double percentile) {
+      int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+      return latencies[Math.max(index, 0)] / 1e6;
+    }
+  }
+}
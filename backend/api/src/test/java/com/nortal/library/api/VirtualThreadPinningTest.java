@@ -0,0 +1,54 @@
+package com.nortal.library.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nortal.library.core.port.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Cache misses on the member existence check from many more virtual threads than the pool has
+ * connections. Each miss waits for a connection, so any monitor held around the lookup shows up in
+ * {@link com.nortal.library.api.config.PinnedThreadMonitor}'s timer.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:virtual-pinning;DB_CLOSE_DELAY=-1",
+      "library.threads.pinned-threshold-ms=0"
+    })
+@ActiveProfiles("virtual")
+class VirtualThreadPinningTest {
+
+  private static final int CALLERS = 200;
+
+  @Autowired MemberRepository members;
+
+  @Autowired MeterRegistry registry;
+
+  @Test
+  void existenceCacheMissesDoNotPinCarriers() throws Exception {
+    List<Future<Boolean>> lookups = new ArrayList<>();
+    try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < CALLERS; i++) {
+        // a few callers per id, so misses on the same key overlap
+        String id = "vp-absent-" + i % 20;
+        lookups.add(pool.submit(() -> members.existsById(id)));
+      }
+      for (Future<Boolean> lookup : lookups) {
+        assertThat(lookup.get()).isFalse();
+      }
+    }
+    // the JFR stream delivers events about once a second
+    Thread.sleep(2_500);
+
+    assertThat(registry.get("library.threads.pinned").timer().count()).isZero();
+  }
+}
@@ -0,0 +1,63 @@
+package com.nortal.library.api.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ReadYourWritesTest {
+
+  private final StubHeartbeat heartbeat = new StubHeartbeat();
+  private final ReadYourWrites readYourWrites = new ReadYourWrites(heartbeat);
+
+  @Test
+  void aReaderWaitsForTheReplicaToShowItsWrite() {
+    heartbeat.issued = 4;
+    readYourWrites.wrote("m1");
+    String previous = readYourWrites.enter("m1");
+
+    heartbeat.replicated = 4;
+    assertThat(readYourWrites.readerHasUnreplicatedWrites()).isTrue();
+    heartbeat.replicated = 5;
+    assertThat(readYourWrites.readerHasUnreplicatedWrites()).isFalse();
+
+    readYourWrites.leave(previous);
+    assertThat(readYourWrites.pendingMembers()).isZero();
+  }
+
+  @Test
+  void caughtUpWritesExpireWithoutAReadFromTheirMember() {
+    heartbeat.issued = 1;
+    readYourWrites.wrote("m1");
+    readYourWrites.wrote("m2");
+    heartbeat.issued = 2;
+    readYourWrites.wrote("m2");
+
+    // m1 waited for 2 and m2 now waits for 3
+    heartbeat.replicated = 2;
+    readYourWrites.wrote("m3");
+
+    assertThat(readYourWrites.pendingMembers()).isEqualTo(2);
+    String previous = readYourWrites.enter("m2");
+    assertThat(readYourWrites.readerHasUnreplicatedWrites()).isTrue();
+    readYourWrites.leave(previous);
+  }
+
+  private static final class StubHeartbeat extends ReplicaHeartbeat {
+    long issued;
+    long replicated;
+
+    StubHeartbeat() {
+      super(null, null, 0);
+    }
+
+    @Override
+    public long nextPosition() {
+      return issued + 1;
+    }
+
+    @Override
+    public long replicaPosition() {
+      return replicated;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.nortal.library.benchmarks;
+
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.Member;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * A catalog of {@code catalogSize} books and a tenth as many members behind either storage. Every
+ * hundredth book is on an overdue loan. On top of that sit the few books and members each benchmark
+ * works on, created through the service so both storages start from the same state.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+  static final int QUEUE_DEPTH = 100;
+  static final String BORROW_BOOK = "bench-borrow";
+  static final String BORROWER = "bench-borrower";
+  static final String QUEUE_BOOK = "bench-queue";
+  static final String RESERVE_BOOK = "bench-reserve";
+  static final String RESERVER = "bench-reserver";
+  static final String SUMMARY_MEMBER = queueMember(QUEUE_DEPTH / 2);
+  // matches ten titles at every catalog size
+  static final String TITLE_QUERY = "ook 000042";
+
+  private static final int INSERT_BATCH = 10_000;
+
+  @Param({"1000", "100000", "1000000"})
+  public int catalogSize;
+
+  @Param({"stub", "jpa"})
+  public String storage;
+
+  LibraryService library;
+  LocalDate today;
+
+  /** Holder of {@link #QUEUE_BOOK}; the queue behind them is always {@link #QUEUE_DEPTH} long. */
+  String queueHolder;
+
+  private ConfigurableApplicationContext context;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    today = LocalDate.now();
+    int memberCount = Math.max(catalogSize / 10, 1);
+    if (storage.equals("stub")) {
+      StubMemberRepository members = new StubMemberRepository();
+      StubBookRepository books = new StubBookRepository(members);
+      for (int i = 0; i < memberCount; i++) {
+        members.save(new Member(memberId(i), "Member " + i));
+      }
+      for (int i = 0; i < catalogSize; i++) {
+        books.save(catalogBook(i, memberCount));
+      }
+      members.reconcileActiveLoans();
+      library = new LibraryService(books, members);
+    } else {
+      context = startJpa();
+      seedJdbc(context.getBean(JdbcTemplate.class), memberCount);
+      library = context.getBean(LibraryService.class);
+      library.reconcileLoanCounters();
+    }
+    createFixtures();
+    // builds the lazily loaded title index outside the measurement
+    library.searchBooks(TITLE_QUERY, null, null);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  private void createFixtures() {
+    library.createMember(BORROWER, "Borrower");
+    library.createBook(BORROW_BOOK, "Borrowed over and over");
+
+    library.createMember(RESERVER, "Reserver");
+    library.createBook(RESERVE_BOOK, "Reserved over and over");
+    library.borrowBook(RESERVE_BOOK, memberId(0));
+
+    for (int i = 0; i <= QUEUE_DEPTH; i++) {
+      library.createMember(queueMember(i), "Queued " + i);
+    }
+    library.createBook(QUEUE_BOOK, "Handed down a long queue");
+    queueHolder = queueMember(0);
+    library.borrowBook(QUEUE_BOOK, queueHolder);
+    for (int i = 1; i <= QUEUE_DEPTH; i++) {
+      library.reserveBook(QUEUE_BOOK, queueMember(i));
+    }
+  }
+
+  private Book catalogBook(int i, int memberCount) {
+    Book book = new Book(bookId(i), "Book %07d".formatted(i));
+    if (i % 100 == 0) {
+      book.setLoanedTo(memberId((i / 100) % memberCount));
+      book.setDueDate(today.minusDays(1 + i % 30));
+    }
+    return book;
+  }
+
+  private void seedJdbc(JdbcTemplate jdbc, int memberCount) {
+    List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+    for (int i = 0; i < memberCount; i++) {
+      rows.add(new Object[] {memberId(i), "Member " + i});
+      if (rows.size() == INSERT_BATCH || i == memberCount - 1) {
+        jdbc.batchUpdate("insert into members (id, name) values (?, ?)", rows);
+        rows.clear();
+      }
+    }
+    for (int i = 0; i < catalogSize; i++) {
+      Book book = catalogBook(i, memberCount);
+      rows.add(new Object[] {book.getId(), book.getTitle(), book.getLoanedTo(), book.getDueDate()});
+      if (rows.size() == INSERT_BATCH || i == catalogSize - 1) {
+        jdbc.batchUpdate(
+            "insert into books (id, title, loaned_to, due_date) values (?, ?, ?, ?)", rows);
+        rows.clear();
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext startJpa() {
+    return new SpringApplicationBuilder(JpaBenchmarkConfig.class)
+        .properties(
+            "spring.main.web-application-type=none",
+            "spring.main.banner-mode=off",
+            "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+            "spring.jpa.hibernate.ddl-auto=update",
+            "spring.jpa.open-in-view=false",
+            "spring.sql.init.mode=always",
+            "decorator.datasource.enabled=false",
+            "logging.level.root=WARN")
+        .run();
+  }
+
+  static String bookId(int i) {
+    return "book-%07d".formatted(i);
+  }
+
+  static String memberId(int i) {
+    return "member-%07d".formatted(i);
+  }
+
+  static String queueMember(int i) {
+    return "bench-queued-%03d".formatted(i);
+  }
+}
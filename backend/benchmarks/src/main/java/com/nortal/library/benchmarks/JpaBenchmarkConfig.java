@@ -0,0 +1,40 @@
+package com.nortal.library.benchmarks;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.port.BookRepository;
+import com.nortal.library.core.port.MemberRepository;
+import com.nortal.library.persistence.adapter.BookRepositoryAdapter;
+import com.nortal.library.persistence.adapter.MemberRepositoryAdapter;
+import com.nortal.library.persistence.config.JpaPersistenceConfig;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The JPA adapters and a transactional {@link LibraryService} as the application wires them,
+ * without the web layer, the lock and retry aspects or the seed data.
+ */
+@Configuration
+@EnableAutoConfiguration
+@EnableCaching
+@Import({JpaPersistenceConfig.class, BookRepositoryAdapter.class, MemberRepositoryAdapter.class})
+class JpaBenchmarkConfig {
+
+  @Bean
+  CacheManager cacheManager() {
+    CaffeineCacheManager caffeine = new CaffeineCacheManager(MemberRepositoryAdapter.EXISTS_CACHE);
+    caffeine.setCaffeineSpec(CaffeineSpec.parse("maximumSize=100000,expireAfterWrite=10m"));
+    return new TransactionAwareCacheManagerProxy(caffeine);
+  }
+
+  @Bean
+  LibraryService libraryService(BookRepository bookRepository, MemberRepository memberRepository) {
+    return new LibraryService(bookRepository, memberRepository);
+  }
+}
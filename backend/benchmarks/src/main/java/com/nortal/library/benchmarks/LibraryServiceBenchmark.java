@@ -0,0 +1,115 @@
+package com.nortal.library.benchmarks;
+
+import com.nortal.library.core.LibraryService;
+import com.nortal.library.core.domain.BookView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Service operations against a {@link CatalogState}. Operations that change state are undone by an
+ * invocation-level teardown, outside the measured time, so every invocation sees the same catalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class LibraryServiceBenchmark {
+
+  @Benchmark
+  public LibraryService.Result borrowBook(BorrowState state) {
+    return state.catalog.library.borrowBook(CatalogState.BORROW_BOOK, CatalogState.BORROWER);
+  }
+
+  /** Returns a book with {@link CatalogState#QUEUE_DEPTH} members waiting; the head gets it. */
+  @Benchmark
+  public LibraryService.ResultWithNext returnBook(ReturnState state) {
+    state.result =
+        state.catalog.library.returnBook(CatalogState.QUEUE_BOOK, state.catalog.queueHolder);
+    return state.result;
+  }
+
+  @Benchmark
+  public LibraryService.Result reserveBook(ReserveState state) {
+    return state.catalog.library.reserveBook(CatalogState.RESERVE_BOOK, CatalogState.RESERVER);
+  }
+
+  @Benchmark
+  public List<BookView> searchBooks(CatalogState catalog) {
+    return catalog.library.searchBooks(CatalogState.TITLE_QUERY, null, null);
+  }
+
+  /** Every overdue loan, a hundredth of the catalog. */
+  @Benchmark
+  public List<BookView> overdueBooks(CatalogState catalog) {
+    return catalog.library.overdueBooks(catalog.today);
+  }
+
+  @Benchmark
+  public LibraryService.MemberSummary memberSummary(CatalogState catalog) {
+    return catalog.library.memberSummary(CatalogState.SUMMARY_MEMBER);
+  }
+
+  @State(Scope.Thread)
+  public static class BorrowState {
+    CatalogState catalog;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+      this.catalog = catalog;
+    }
+
+    @TearDown(Level.Invocation)
+    public void giveBack() {
+      catalog.library.returnBook(CatalogState.BORROW_BOOK, CatalogState.BORROWER);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ReturnState {
+    CatalogState catalog;
+    LibraryService.ResultWithNext result;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+      this.catalog = catalog;
+    }
+
+    // the previous holder rejoins at the back, so the queue stays as deep as it started
+    @TearDown(Level.Invocation)
+    public void requeue() {
+      String previous = catalog.queueHolder;
+      catalog.queueHolder = result.nextMemberId();
+      catalog.library.reserveBook(CatalogState.QUEUE_BOOK, previous);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ReserveState {
+    CatalogState catalog;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+      this.catalog = catalog;
+    }
+
+    @TearDown(Level.Invocation)
+    public void cancel() {
+      catalog.library.cancelReservation(CatalogState.RESERVE_BOOK, CatalogState.RESERVER);
+    }
+  }
+}
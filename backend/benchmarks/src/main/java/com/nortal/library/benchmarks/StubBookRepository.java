@@ -0,0 +1,222 @@
+package com.nortal.library.benchmarks;
+
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookTitle;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.domain.CirculationStats;
+import com.nortal.library.core.domain.MemberReservation;
+import com.nortal.library.core.domain.QueueCandidate;
+import com.nortal.library.core.port.BookRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Single-threaded map-backed {@link BookRepository}, so the benchmarks can separate the service's
+ * own cost from the storage's. Scans where the real adapters have an index, except for the lookups
+ * by id and holder that every operation makes.
+ */
+class StubBookRepository implements BookRepository {
+
+  private final TreeMap<String, Book> books = new TreeMap<>();
+  private final Map<String, LinkedHashSet<String>> queues = new HashMap<>();
+  private final StubMemberRepository members;
+
+  StubBookRepository(StubMemberRepository members) {
+    this.members = members;
+  }
+
+  @Override
+  public Optional<Book> findById(String id) {
+    return Optional.ofNullable(books.get(id));
+  }
+
+  @Override
+  public List<BookView> findAll() {
+    return books.values().stream().map(StubBookRepository::view).toList();
+  }
+
+  @Override
+  public void streamAll(Consumer<Book> consumer) {
+    books.values().forEach(consumer);
+  }
+
+  @Override
+  public List<Book> findAllById(Collection<String> ids) {
+    return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+  }
+
+  @Override
+  public List<BookView> findViewsById(Collection<String> ids) {
+    return findAllById(ids).stream().map(StubBookRepository::view).toList();
+  }
+
+  @Override
+  public List<BookView> findPageAfter(String afterId, int limit) {
+    Collection<Book> rest =
+        afterId == null ? books.values() : books.tailMap(afterId, false).values();
+    return rest.stream().limit(limit).map(StubBookRepository::view).toList();
+  }
+
+  @Override
+  public List<BookTitle> findTitlesById(Collection<String> ids) {
+    return findAllById(ids).stream().map(b -> new BookTitle(b.getId(), b.getTitle())).toList();
+  }
+
+  @Override
+  public Book save(Book book) {
+    books.put(book.getId(), book);
+    members.holderChanged(book);
+    return book;
+  }
+
+  @Override
+  public void insertAll(List<Book> books) {
+    books.forEach(this::save);
+  }
+
+  @Override
+  public void delete(Book book) {
+    books.remove(book.getId());
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return books.containsKey(id);
+  }
+
+  @Override
+  public long countByLoanedTo(String memberId) {
+    return members.heldBy(memberId).size();
+  }
+
+  @Override
+  public List<Book> findByLoanedTo(String memberId) {
+    return findAllById(members.heldBy(memberId));
+  }
+
+  @Override
+  public List<MemberReservation> findReservationsByMember(String memberId) {
+    List<MemberReservation> reservations = new ArrayList<>();
+    queues.forEach(
+        (bookId, queue) -> {
+          long position = 0;
+          for (String queued : queue) {
+            if (queued.equals(memberId)) {
+              reservations.add(new MemberReservation(bookId, position));
+              break;
+            }
+            position++;
+          }
+        });
+    reservations.sort(Comparator.comparing(MemberReservation::bookId));
+    return reservations;
+  }
+
+  @Override
+  public Optional<String> findQueueHead(String bookId) {
+    LinkedHashSet<String> queue = queues.get(bookId);
+    return queue == null ? Optional.empty() : queue.stream().findFirst();
+  }
+
+  @Override
+  public boolean isQueued(String bookId, String memberId) {
+    LinkedHashSet<String> queue = queues.get(bookId);
+    return queue != null && queue.contains(memberId);
+  }
+
+  @Override
+  public void enqueue(String bookId, String memberId) {
+    queues.computeIfAbsent(bookId, id -> new LinkedHashSet<>()).add(memberId);
+  }
+
+  @Override
+  public void enqueueAll(Map<String, List<String>> additions) {
+    additions.forEach((bookId, memberIds) -> memberIds.forEach(m -> enqueue(bookId, m)));
+  }
+
+  @Override
+  public boolean dequeue(String bookId, String memberId) {
+    LinkedHashSet<String> queue = queues.get(bookId);
+    return queue != null && queue.remove(memberId);
+  }
+
+  @Override
+  public void clearQueue(String bookId) {
+    queues.remove(bookId);
+  }
+
+  @Override
+  public List<QueueCandidate> findQueueCandidates(String bookId) {
+    LinkedHashSet<String> queue = queues.get(bookId);
+    if (queue == null) {
+      return List.of();
+    }
+    return queue.stream()
+        .map(
+            memberId ->
+                new QueueCandidate(
+                    memberId, members.existsById(memberId), members.activeLoanCount(memberId)))
+        .toList();
+  }
+
+  @Override
+  public void dequeueAll(String bookId, Collection<String> memberIds) {
+    LinkedHashSet<String> queue = queues.get(bookId);
+    if (queue != null) {
+      queue.removeAll(memberIds);
+    }
+  }
+
+  @Override
+  public Map<String, List<String>> findQueues(Collection<String> bookIds) {
+    Map<String, List<String>> result = new HashMap<>();
+    for (String bookId : bookIds) {
+      LinkedHashSet<String> queue = queues.get(bookId);
+      if (queue != null && !queue.isEmpty()) {
+        result.put(bookId, List.copyOf(queue));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<BookView> findLoansDueBefore(
+      LocalDate date, LocalDate afterDueDate, String afterId, int limit) {
+    Comparator<Book> order = Comparator.comparing(Book::getDueDate).thenComparing(Book::getId);
+    return books.values().stream()
+        .filter(b -> b.getLoanedTo() != null && b.getDueDate().isBefore(date))
+        .filter(b -> afterDueDate == null || order.compare(b, bookAt(afterDueDate, afterId)) > 0)
+        .sorted(order)
+        .limit(limit)
+        .map(StubBookRepository::view)
+        .toList();
+  }
+
+  @Override
+  public CirculationStats circulationStats() {
+    long loans = books.values().stream().filter(b -> b.getLoanedTo() != null).count();
+    long queued = queues.values().stream().mapToLong(LinkedHashSet::size).sum();
+    long longest = queues.values().stream().mapToLong(LinkedHashSet::size).max().orElse(0);
+    return new CirculationStats(loans, queued, longest);
+  }
+
+  private static BookView view(Book book) {
+    return new BookView(book.getId(), book.getTitle(), book.getLoanedTo(), book.getDueDate());
+  }
+
+  private static Book bookAt(LocalDate dueDate, String id) {
+    Book book = new Book(id, null);
+    book.setDueDate(dueDate);
+    return book;
+  }
+}
@@ -0,0 +1,125 @@
+package com.nortal.library.benchmarks;
+
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
+import com.nortal.library.core.port.MemberRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/** Map-backed {@link MemberRepository} to go with {@link StubBookRepository}. */
+class StubMemberRepository implements MemberRepository {
+
+  private final TreeMap<String, Member> members = new TreeMap<>();
+  // book id -> holder and holder -> book ids, kept by StubBookRepository.save
+  private final Map<String, String> holders = new HashMap<>();
+  private final Map<String, Set<String>> held = new HashMap<>();
+
+  @Override
+  public Optional<Member> findById(String id) {
+    return Optional.ofNullable(members.get(id));
+  }
+
+  @Override
+  public List<MemberView> findAll() {
+    return members.values().stream().map(StubMemberRepository::view).toList();
+  }
+
+  @Override
+  public List<Member> findAllById(Collection<String> ids) {
+    return ids.stream().map(members::get).filter(Objects::nonNull).toList();
+  }
+
+  @Override
+  public void streamAll(Consumer<Member> consumer) {
+    members.values().forEach(consumer);
+  }
+
+  @Override
+  public List<MemberView> findPageAfter(String afterId, int limit) {
+    Collection<Member> rest =
+        afterId == null ? members.values() : members.tailMap(afterId, false).values();
+    return rest.stream().limit(limit).map(StubMemberRepository::view).toList();
+  }
+
+  @Override
+  public Member save(Member member) {
+    Member existing = members.get(member.getId());
+    if (existing != null) {
+      member.setActiveLoans(existing.getActiveLoans());
+    }
+    members.put(member.getId(), member);
+    return member;
+  }
+
+  @Override
+  public void insertAll(List<Member> members) {
+    members.forEach(this::save);
+  }
+
+  @Override
+  public void delete(Member member) {
+    members.remove(member.getId());
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return members.containsKey(id);
+  }
+
+  @Override
+  public int activeLoanCount(String memberId) {
+    Member member = members.get(memberId);
+    return member == null ? 0 : member.getActiveLoans();
+  }
+
+  @Override
+  public void adjustActiveLoans(String memberId, int delta) {
+    Member member = members.get(memberId);
+    if (member != null) {
+      member.setActiveLoans(member.getActiveLoans() + delta);
+    }
+  }
+
+  @Override
+  public int reconcileActiveLoans() {
+    int drifted = 0;
+    for (Member member : members.values()) {
+      int actual = heldBy(member.getId()).size();
+      if (member.getActiveLoans() != actual) {
+        member.setActiveLoans(actual);
+        drifted++;
+      }
+    }
+    return drifted;
+  }
+
+  Set<String> heldBy(String memberId) {
+    return held.getOrDefault(memberId, Set.of());
+  }
+
+  void holderChanged(Book book) {
+    String previous =
+        book.getLoanedTo() == null
+            ? holders.remove(book.getId())
+            : holders.put(book.getId(), book.getLoanedTo());
+    if (previous != null) {
+      held.get(previous).remove(book.getId());
+    }
+    if (book.getLoanedTo() != null) {
+      held.computeIfAbsent(book.getLoanedTo(), id -> new TreeSet<>()).add(book.getId());
+    }
+  }
+
+  private static MemberView view(Member member) {
+    return new MemberView(member.getId(), member.getName());
+  }
+}
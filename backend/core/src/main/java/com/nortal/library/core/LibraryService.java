@@ -1,27 +1,73 @@
 package com.nortal.library.core;
 
 import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookTitle;
+import com.nortal.library.core.domain.BookView;
 import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
+import com.nortal.library.core.domain.QueueCandidate;
+import com.nortal.library.core.index.DueDateIndex;
+import com.nortal.library.core.index.TitleIndex;
+import com.nortal.library.core.lock.BookLocked;
+import com.nortal.library.core.lock.BooksLocked;
 import com.nortal.library.core.port.BookRepository;
 import com.nortal.library.core.port.MemberRepository;
+import com.nortal.library.core.tx.AfterCommit;
+import com.nortal.library.core.tx.MemberOperation;
+import com.nortal.library.core.tx.ReadOnlyTransaction;
+import com.nortal.library.core.tx.RetryOnConflict;
+import com.nortal.library.core.version.Catalog;
+import com.nortal.library.core.version.ChangesCatalog;
 import jakarta.transaction.Transactional;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class LibraryService {
-    private static final int MAX_LOANS = 5;
-    private static final int DEFAULT_LOAN_DAYS = 14;
+    public static final int MAX_LOANS = 5;
+    public static final int DEFAULT_LOAN_DAYS = 14;
+    private static final int EXPORT_CHUNK = 500;
+    // ids, titles and names are varchar(255) columns
+    private static final int MAX_TEXT_LENGTH = 255;
 
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
+    private final TitleIndex titleIndex = new TitleIndex();
+    private volatile boolean titleIndexLoaded;
+    // optional: null means overdue queries always go to the repository
+    private final DueDateIndex dueDateIndex;
+    private volatile boolean dueDateIndexLoaded;
+    // the index loads read the whole catalog; a monitor held across that JDBC work would pin a virtual thread's carrier
+    private final ReentrantLock indexLoadLock = new ReentrantLock();
+    // index changes wait for the commit, so a rolled-back transaction leaves the indexes untouched
+    private final AfterCommit afterCommit;
 
     public LibraryService(BookRepository bookRepository,
                           MemberRepository memberRepository) {
+        this(bookRepository,
+                memberRepository,
+                null,
+                AfterCommit.IMMEDIATE);
+    }
+
+    public LibraryService(BookRepository bookRepository,
+                          MemberRepository memberRepository,
+                          DueDateIndex dueDateIndex,
+                          AfterCommit afterCommit) {
         this.bookRepository = bookRepository;
         this.memberRepository = memberRepository;
+        this.dueDateIndex = dueDateIndex;
+        this.afterCommit = afterCommit;
     }
 
+    @BookLocked
+    @MemberOperation(memberParameter = 1)
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public Result borrowBook(String bookId,
                              String memberId) {
@@ -35,7 +81,6 @@ public class LibraryService {
         }
 
         Book entity = book.get();
-        List<String> queue = entity.getReservationQueue();
 
         // check if you loaned it
         if (Objects.equals(entity.getLoanedTo(),
@@ -48,14 +93,14 @@ public class LibraryService {
         }
 
         // check if book is queued and if you're the first
-        if (queue != null && !queue.isEmpty()) {
-            String headMemberId = queue.getFirst();
-            if (!Objects.equals(headMemberId,
+        Optional<String> head = bookRepository.findQueueHead(bookId);
+        if (head.isPresent()) {
+            if (!Objects.equals(head.get(),
                     memberId)) {
                 return Result.failure("ALREADY_RESERVED");
             }
             // cancel reservation if borrowing
-            cancelReservation(bookId,
+            bookRepository.dequeue(bookId,
                     memberId);
         }
 
@@ -67,9 +112,16 @@ public class LibraryService {
         entity.setLoanedTo(memberId);
         entity.setDueDate(LocalDate.now().plusDays(DEFAULT_LOAN_DAYS));
         bookRepository.save(entity);
+        memberRepository.adjustActiveLoans(memberId,
+                1);
+        trackDueDate(entity);
         return Result.success();
     }
 
+    @BookLocked
+    @MemberOperation(memberParameter = 1)
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public ResultWithNext returnBook(String bookId,
                                      String memberId) {
@@ -93,34 +145,41 @@ public class LibraryService {
 
         entity.setLoanedTo(null);
         entity.setDueDate(null);
+        memberRepository.adjustActiveLoans(memberId,
+                -1);
 
         // if queued
-        List<String> queue = entity.getReservationQueue();
         String nextMember = null;
-        // taking care queued get returned and queue adjusted
-        if (queue != null) {
-            Iterator<String> it = queue.iterator();
-            while (it.hasNext()) {
-                String candidate = it.next();
-                it.remove();
-
-                if (!memberRepository.existsById(candidate)) {
-                    continue;
-                }
-                if (!canMemberBorrow(candidate)) {
-                    continue;
-                }
-
-                nextMember = candidate;
-                entity.setLoanedTo(candidate);
-                entity.setDueDate(LocalDate.now().plusDays(DEFAULT_LOAN_DAYS));
-                break;
+        // taking care queued get returned and queue adjusted; the whole queue is judged from one
+        // query, and the skipped members plus the chosen one leave it in a single delete
+        List<String> leaving = new ArrayList<>();
+        for (QueueCandidate candidate : bookRepository.findQueueCandidates(bookId)) {
+            leaving.add(candidate.memberId());
+            if (!candidate.memberExists()) {
+                continue;
+            }
+            if (candidate.activeLoans() >= MAX_LOANS) {
+                continue;
             }
+
+            nextMember = candidate.memberId();
+            entity.setLoanedTo(nextMember);
+            entity.setDueDate(LocalDate.now().plusDays(DEFAULT_LOAN_DAYS));
+            memberRepository.adjustActiveLoans(nextMember,
+                    1);
+            break;
         }
+        bookRepository.dequeueAll(bookId,
+                leaving);
         bookRepository.save(entity);
+        trackDueDate(entity);
         return ResultWithNext.success(nextMember);
     }
 
+    @BookLocked
+    @MemberOperation(memberParameter = 1)
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public Result reserveBook(String bookId,
                               String memberId) {
@@ -140,19 +199,16 @@ public class LibraryService {
             return Result.failure("ALREADY_LOANED");
         }
 
-        List<String> queue = entity.getReservationQueue();
-        if (queue == null) {
-            queue = new ArrayList<>();
-            entity.setReservationQueue(queue);
-        }
         // avoid duplicate reservation
-        if (queue.contains(memberId)) {
+        if (bookRepository.isQueued(bookId,
+                memberId)) {
             return Result.failure("ALREADY_RESERVED");
         }
         // book is available
         if (entity.getLoanedTo() == null) {
             // respect existing reservation order (no line-jumping)
-            if (!queue.isEmpty() && !Objects.equals(queue.getFirst(),
+            Optional<String> head = bookRepository.findQueueHead(bookId);
+            if (head.isPresent() && !Objects.equals(head.get(),
                     memberId)) {
                 return Result.failure("ALREADY_RESERVED");
             }
@@ -160,58 +216,229 @@ public class LibraryService {
             return borrowBook(bookId,
                     memberId);
         }
-        queue.add(memberId);
-        bookRepository.save(entity);
+        bookRepository.enqueue(bookId,
+                memberId);
         return Result.success();
     }
 
+    @BookLocked
+    @MemberOperation(memberParameter = 1)
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public Result cancelReservation(String bookId,
                                     String memberId) {
-        Optional<Book> book = bookRepository.findById(bookId);
-        if (book.isEmpty()) {
+        if (!bookRepository.existsById(bookId)) {
             return Result.failure("BOOK_NOT_FOUND");
         }
         if (!memberRepository.existsById(memberId)) {
             return Result.failure("MEMBER_NOT_FOUND");
         }
 
-        Book entity = book.get();
-        boolean removed = entity.getReservationQueue().remove(memberId);
+        boolean removed = bookRepository.dequeue(bookId,
+                memberId);
         if (!removed) {
             return Result.failure("NOT_RESERVED");
         }
-        bookRepository.save(entity);
         return Result.success();
     }
 
     public boolean canMemberBorrow(String memberId) {
-        return bookRepository.countByLoanedTo(memberId) < MAX_LOANS;
+        // counter kept by borrow/return/handoff, so this is a single-row read instead of a COUNT
+        return memberRepository.activeLoanCount(memberId) < MAX_LOANS;
     }
 
-    public List<Book> searchBooks(String titleContains,
-                                  Boolean availableOnly,
-                                  String loanedTo) {
-        return bookRepository.findAll().stream()
+    /**
+     * Recomputes every member's active-loan counter from the books themselves. Returns how many
+     * counters had drifted; anything above zero means some write path bypassed the counters.
+     */
+    @ChangesCatalog(Catalog.MEMBERS)
+    @Transactional
+    public int reconcileLoanCounters() {
+        return memberRepository.reconcileActiveLoans();
+    }
+
+    @ReadOnlyTransaction
+    public List<BookView> searchBooks(String titleContains,
+                                      Boolean availableOnly,
+                                      String loanedTo) {
+        // title queries only load the books the trigram index points at
+        List<BookView> candidates =
+                titleContains == null
+                        ? bookRepository.findAll()
+                        : findBookViews(titleIndex().search(titleContains));
+        return candidates.stream()
                 .filter(
                         b ->
                                 titleContains == null
-                                        || b.getTitle().toLowerCase().contains(titleContains.toLowerCase()))
-                .filter(b -> loanedTo == null || loanedTo.equals(b.getLoanedTo()))
+                                        || b.title().toLowerCase().contains(titleContains.toLowerCase()))
+                .filter(b -> loanedTo == null || loanedTo.equals(b.loanedTo()))
                 .filter(
                         b ->
                                 availableOnly == null
-                                        || (availableOnly ? b.getLoanedTo() == null : b.getLoanedTo() != null))
+                                        || (availableOnly ? b.loanedTo() == null : b.loanedTo() != null))
                 .toList();
     }
 
-    public List<Book> overdueBooks(LocalDate today) {
-        return bookRepository.findAll().stream()
-                .filter(b -> b.getLoanedTo() != null)
-                .filter(b -> b.getDueDate() != null && b.getDueDate().isBefore(today))
+    private List<BookView> findBookViews(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findViewsById(ids);
+    }
+
+    // built on first search; create/update/delete keep it current afterwards
+    private TitleIndex titleIndex() {
+        if (!titleIndexLoaded) {
+            indexLoadLock.lock();
+            try {
+                if (!titleIndexLoaded) {
+                    for (BookView book : bookRepository.findAll()) {
+                        titleIndex.put(book.id(),
+                                book.title());
+                    }
+                    titleIndexLoaded = true;
+                }
+            } finally {
+                indexLoadLock.unlock();
+            }
+        }
+        return titleIndex;
+    }
+
+    @ReadOnlyTransaction
+    public List<BookView> overdueBooks(LocalDate today) {
+        return overdueBooks(today,
+                null,
+                Integer.MAX_VALUE).items();
+    }
+
+    /**
+     * One page of overdue loans ordered by due date, then id. {@code cursor} is the {@code nextCursor}
+     * of the previous page, or null for the first one.
+     */
+    @ReadOnlyTransaction
+    public Page<BookView> overdueBooks(LocalDate today,
+                                       String cursor,
+                                       int limit) {
+        LocalDate afterDueDate = null;
+        String afterId = null;
+        if (cursor != null) {
+            int separator = cursor.indexOf('|');
+            try {
+                afterDueDate = LocalDate.parse(cursor.substring(0,
+                        Math.max(separator,
+                                0)));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("INVALID_CURSOR",
+                        e);
+            }
+            afterId = cursor.substring(separator + 1);
+        }
+
+        if (dueDateIndex == null) {
+            List<BookView> books = bookRepository.findLoansDueBefore(today,
+                    afterDueDate,
+                    afterId,
+                    limit);
+            String next = books.size() < limit ? null : overdueCursor(books.getLast().dueDate(),
+                    books.getLast().id());
+            return new Page<>(books,
+                    next);
+        }
+
+        List<DueDateIndex.Entry> entries = dueDateIndex().dueBefore(today,
+                afterDueDate,
+                afterId,
+                limit);
+        Map<String, BookView> byId = new HashMap<>();
+        for (BookView book : findBookViews(entries.stream().map(DueDateIndex.Entry::bookId).toList())) {
+            byId.put(book.id(),
+                    book);
+        }
+        // the index may briefly disagree with the database; the loaded rows are authoritative
+        List<BookView> books = entries.stream()
+                .map(entry -> byId.get(entry.bookId()))
+                .filter(Objects::nonNull)
+                .filter(b -> b.loanedTo() != null)
+                .filter(b -> b.dueDate() != null && b.dueDate().isBefore(today))
                 .toList();
+        String next = entries.size() < limit ? null : overdueCursor(entries.getLast().dueDate(),
+                entries.getLast().bookId());
+        return new Page<>(books,
+                next);
     }
 
+    private static String overdueCursor(LocalDate dueDate,
+                                        String bookId) {
+        return dueDate + "|" + bookId;
+    }
+
+    private DueDateIndex dueDateIndex() {
+        if (!dueDateIndexLoaded) {
+            indexLoadLock.lock();
+            try {
+                if (!dueDateIndexLoaded) {
+                    for (BookView book : bookRepository.findAll()) {
+                        dueDateIndex.put(book.id(),
+                                book.loanedTo() == null ? null : book.dueDate());
+                    }
+                    dueDateIndexLoaded = true;
+                }
+            } finally {
+                indexLoadLock.unlock();
+            }
+        }
+        return dueDateIndex;
+    }
+
+    private void trackDueDate(Book book) {
+        if (dueDateIndex != null) {
+            String bookId = book.getId();
+            LocalDate dueDate = book.getLoanedTo() == null ? null : book.getDueDate();
+            afterCommit.run(() -> updateIndex(dueDateIndexLoaded,
+                    () -> dueDateIndex.put(bookId,
+                            dueDate)));
+        }
+    }
+
+    private void untrackDueDate(String bookId) {
+        if (dueDateIndex != null) {
+            afterCommit.run(() -> updateIndex(dueDateIndexLoaded,
+                    () -> dueDateIndex.remove(bookId)));
+        }
+    }
+
+    private void indexTitle(String bookId,
+                            String title) {
+        afterCommit.run(() -> updateIndex(titleIndexLoaded,
+                () -> titleIndex.put(bookId,
+                        title)));
+    }
+
+    private void unindexTitle(String bookId) {
+        afterCommit.run(() -> updateIndex(titleIndexLoaded,
+                () -> titleIndex.remove(bookId)));
+    }
+
+    // until an index is loaded its updates queue behind the load, so they land after the load's
+    // older snapshot instead of being overwritten by it
+    private void updateIndex(boolean loaded,
+                             Runnable update) {
+        if (loaded) {
+            update.run();
+            return;
+        }
+        indexLoadLock.lock();
+        try {
+            update.run();
+        } finally {
+            indexLoadLock.unlock();
+        }
+    }
+
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public Result extendLoan(String bookId,
                              int days) {
@@ -232,9 +459,12 @@ public class LibraryService {
                         : entity.getDueDate();
         entity.setDueDate(baseDate.plusDays(days));
         bookRepository.save(entity);
+        trackDueDate(entity);
         return Result.success();
     }
 
+    @MemberOperation
+    @ReadOnlyTransaction
     public MemberSummary memberSummary(String memberId) {
         if (!memberRepository.existsById(memberId)) {
             return new MemberSummary(false,
@@ -242,47 +472,211 @@ public class LibraryService {
                     List.of(),
                     List.of());
         }
-        List<Book> books = bookRepository.findAll();
-        List<Book> loans = new ArrayList<>();
-        List<ReservationPosition> reservations = new ArrayList<>();
-        for (Book book : books) {
-            if (memberId.equals(book.getLoanedTo())) {
-                loans.add(book);
-            }
-            int idx = book.getReservationQueue().indexOf(memberId);
-            if (idx >= 0) {
-                reservations.add(new ReservationPosition(book.getId(),
-                        idx));
-            }
-        }
+        // two indexed lookups instead of walking every book and queue
+        List<Book> loans = bookRepository.findByLoanedTo(memberId);
+        List<ReservationPosition> reservations = bookRepository.findReservationsByMember(memberId).stream()
+                .map(r -> new ReservationPosition(r.bookId(),
+                        Math.toIntExact(r.position())))
+                .toList();
         return new MemberSummary(true,
                 null,
                 loans,
                 reservations);
     }
 
+    /**
+     * Runs the commands in order inside one transaction and returns one outcome per command. Every
+     * referenced book and member is loaded up front in bulk, so the individual operations resolve
+     * them from memory instead of issuing a lookup each. The operations are called directly, so the
+     * batch holds the lock stripes of all its books itself.
+     */
+    @BooksLocked
+    @ChangesCatalog(Catalog.BOOKS)
+    @Transactional
+    public List<BatchOutcome> runBatch(List<BatchCommand> commands) {
+        Set<String> bookIds = new HashSet<>();
+        Set<String> memberIds = new HashSet<>();
+        for (BatchCommand command : commands) {
+            if (command.bookId() != null) {
+                bookIds.add(command.bookId());
+            }
+            if (command.memberId() != null) {
+                memberIds.add(command.memberId());
+            }
+        }
+        if (!bookIds.isEmpty()) {
+            bookRepository.findAllById(bookIds);
+        }
+        if (!memberIds.isEmpty()) {
+            memberRepository.findAllById(memberIds);
+        }
+
+        List<BatchOutcome> outcomes = new ArrayList<>(commands.size());
+        for (BatchCommand command : commands) {
+            outcomes.add(run(command));
+        }
+        return outcomes;
+    }
+
+    private BatchOutcome run(BatchCommand command) {
+        if (command.operation() == null
+                || command.bookId() == null
+                || command.memberId() == null) {
+            return BatchOutcome.of(Result.failure("INVALID_REQUEST"));
+        }
+        return switch (command.operation()) {
+            case BORROW -> BatchOutcome.of(borrowBook(command.bookId(),
+                    command.memberId()));
+            case RESERVE -> BatchOutcome.of(reserveBook(command.bookId(),
+                    command.memberId()));
+            case CANCEL -> BatchOutcome.of(cancelReservation(command.bookId(),
+                    command.memberId()));
+            case RETURN -> {
+                ResultWithNext result = returnBook(command.bookId(),
+                        command.memberId());
+                yield new BatchOutcome(result.ok(),
+                        null,
+                        result.nextMemberId());
+            }
+        };
+    }
+
     public Optional<Book> findBook(String id) {
         return bookRepository.findById(id);
     }
 
-    public List<Book> allBooks() {
+    /** Titles of the given books in one query; unknown ids are simply absent from the map. */
+    public Map<String, String> bookTitles(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> titles = new HashMap<>();
+        for (BookTitle bookTitle : bookRepository.findTitlesById(ids)) {
+            titles.put(bookTitle.id(),
+                    bookTitle.title());
+        }
+        return titles;
+    }
+
+    @ReadOnlyTransaction
+    public List<BookView> allBooks() {
         return bookRepository.findAll();
     }
 
-    public List<Member> allMembers() {
+    @ReadOnlyTransaction
+    public List<MemberView> allMembers() {
         return memberRepository.findAll();
     }
 
+    /**
+     * Reservation queues of the given books, head first, in one lookup. Books nobody waits for map
+     * to an empty list.
+     */
+    @ReadOnlyTransaction
+    public Map<String, List<String>> reservationQueues(Collection<String> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<String>> queues = new HashMap<>(bookRepository.findQueues(bookIds));
+        for (String bookId : bookIds) {
+            queues.putIfAbsent(bookId,
+                    List.of());
+        }
+        return queues;
+    }
+
+    /**
+     * Streams every book with its reservation queue to {@code consumer} without materializing the
+     * catalog. Queues are looked up for a chunk of books at a time rather than per book.
+     */
+    public void exportBooks(BiConsumer<Book, List<String>> consumer) {
+        List<Book> chunk = new ArrayList<>(EXPORT_CHUNK);
+        bookRepository.streamAll(book -> {
+            chunk.add(book);
+            if (chunk.size() == EXPORT_CHUNK) {
+                exportChunk(chunk,
+                        consumer);
+            }
+        });
+        exportChunk(chunk,
+                consumer);
+    }
+
+    private void exportChunk(List<Book> chunk,
+                             BiConsumer<Book, List<String>> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> queues = bookRepository.findQueues(chunk.stream()
+                .map(Book::getId)
+                .toList());
+        for (Book book : chunk) {
+            consumer.accept(book,
+                    queues.getOrDefault(book.getId(),
+                            List.of()));
+        }
+        chunk.clear();
+    }
+
+    /** Streams every member to {@code consumer} without materializing the member list. */
+    public void exportMembers(Consumer<Member> consumer) {
+        memberRepository.streamAll(consumer);
+    }
+
+    /** Keyset page of books by id; {@code cursor} is the previous page's {@code nextCursor}. */
+    @ReadOnlyTransaction
+    public Page<BookView> books(String cursor,
+                                int limit) {
+        List<BookView> books = bookRepository.findPageAfter(cursor,
+                limit);
+        return new Page<>(books,
+                books.size() < limit ? null : books.getLast().id());
+    }
+
+    /** Keyset page of members by id; {@code cursor} is the previous page's {@code nextCursor}. */
+    @ReadOnlyTransaction
+    public Page<MemberView> members(String cursor,
+                                    int limit) {
+        List<MemberView> members = memberRepository.findPageAfter(cursor,
+                limit);
+        return new Page<>(members,
+                members.size() < limit ? null : members.getLast().id());
+    }
+
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
+    @Transactional
     public Result createBook(String id,
                              String title) {
         if (id == null || title == null) {
             return Result.failure("INVALID_REQUEST");
         }
-        bookRepository.save(new Book(id,
-                title));
+        // re-creating an existing id resets it in place, which ends its loan and queue; saving a
+        // fresh Book instead would be merged over the row without its version
+        Optional<Book> existing = bookRepository.findById(id);
+        if (existing.isPresent()) {
+            Book book = existing.get();
+            if (book.getLoanedTo() != null) {
+                memberRepository.adjustActiveLoans(book.getLoanedTo(),
+                        -1);
+            }
+            book.setTitle(title);
+            book.setLoanedTo(null);
+            book.setDueDate(null);
+            bookRepository.save(book);
+            bookRepository.clearQueue(id);
+        } else {
+            bookRepository.save(new Book(id,
+                    title));
+        }
+        indexTitle(id,
+                title);
+        untrackDueDate(id);
         return Result.success();
     }
 
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public Result updateBook(String id,
                              String title) {
@@ -296,9 +690,13 @@ public class LibraryService {
         Book book = existing.get();
         book.setTitle(title);
         bookRepository.save(book);
+        indexTitle(id,
+                title);
         return Result.success();
     }
 
+    @ChangesCatalog(Catalog.BOOKS)
+    @RetryOnConflict
     @Transactional
     public Result deleteBook(String id) {
         Optional<Book> existing = bookRepository.findById(id);
@@ -306,10 +704,20 @@ public class LibraryService {
             return Result.failure("BOOK_NOT_FOUND");
         }
         Book book = existing.get();
+        if (book.getLoanedTo() != null) {
+            memberRepository.adjustActiveLoans(book.getLoanedTo(),
+                    -1);
+        }
+        bookRepository.clearQueue(id);
         bookRepository.delete(book);
+        unindexTitle(id);
+        untrackDueDate(id);
         return Result.success();
     }
 
+    @MemberOperation
+    @ChangesCatalog(Catalog.MEMBERS)
+    @RetryOnConflict
     @Transactional
     public Result createMember(String id,
                                String name) {
@@ -321,6 +729,86 @@ public class LibraryService {
         return Result.success();
     }
 
+    /**
+     * Inserts new books in one transaction with batched statements, for loading a catalog. Unlike
+     * {@link #createBook} an existing id is rejected rather than reset. Returns one entry per book:
+     * null when it was inserted, otherwise why it was rejected.
+     */
+    @ChangesCatalog(Catalog.BOOKS)
+    @Transactional
+    public List<String> importBooks(List<Book> books) {
+        Set<String> taken = new HashSet<>();
+        bookRepository.findTitlesById(books.stream()
+                        .map(Book::getId)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .forEach(t -> taken.add(t.id()));
+        List<String> rejections = new ArrayList<>(books.size());
+        List<Book> accepted = new ArrayList<>(books.size());
+        for (Book book : books) {
+            String reason = importRejection(book.getId(),
+                    book.getTitle(),
+                    "MISSING_TITLE",
+                    taken);
+            rejections.add(reason);
+            if (reason == null) {
+                accepted.add(book);
+            }
+        }
+        bookRepository.insertAll(accepted);
+        for (Book book : accepted) {
+            indexTitle(book.getId(),
+                    book.getTitle());
+        }
+        return rejections;
+    }
+
+    /** Like {@link #importBooks}, for members. */
+    @ChangesCatalog(Catalog.MEMBERS)
+    @Transactional
+    public List<String> importMembers(List<Member> members) {
+        Set<String> taken = new HashSet<>();
+        memberRepository.findAllById(members.stream()
+                        .map(Member::getId)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .forEach(m -> taken.add(m.getId()));
+        List<String> rejections = new ArrayList<>(members.size());
+        List<Member> accepted = new ArrayList<>(members.size());
+        for (Member member : members) {
+            String reason = importRejection(member.getId(),
+                    member.getName(),
+                    "MISSING_NAME",
+                    taken);
+            rejections.add(reason);
+            if (reason == null) {
+                accepted.add(member);
+            }
+        }
+        memberRepository.insertAll(accepted);
+        return rejections;
+    }
+
+    // claims the id in taken when the row is accepted, so a repeat later in the same import is a duplicate
+    private static String importRejection(String id,
+                                          String text,
+                                          String missingText,
+                                          Set<String> taken) {
+        if (id == null || id.isBlank()) {
+            return "MISSING_ID";
+        }
+        if (text == null || text.isBlank()) {
+            return missingText;
+        }
+        if (id.length() > MAX_TEXT_LENGTH || text.length() > MAX_TEXT_LENGTH) {
+            return "TOO_LONG";
+        }
+        return taken.add(id) ? null : "DUPLICATE_ID";
+    }
+
+    @MemberOperation
+    @ChangesCatalog(Catalog.MEMBERS)
+    @RetryOnConflict
     @Transactional
     public Result updateMember(String id,
                                String name) {
@@ -337,6 +825,9 @@ public class LibraryService {
         return Result.success();
     }
 
+    @MemberOperation
+    @ChangesCatalog(Catalog.MEMBERS)
+    @RetryOnConflict
     @Transactional
     public Result deleteMember(String id) {
         Optional<Member> existing = memberRepository.findById(id);
@@ -377,4 +868,22 @@ public class LibraryService {
 
     public record ReservationPosition(String bookId, int position) {
     }
+
+    public record Page<T>(List<T> items, String nextCursor) {
+    }
+
+    public enum Operation {
+        BORROW, RETURN, RESERVE, CANCEL
+    }
+
+    public record BatchCommand(Operation operation, String bookId, String memberId) {
+    }
+
+    public record BatchOutcome(boolean ok, String reason, String nextMemberId) {
+        static BatchOutcome of(Result result) {
+            return new BatchOutcome(result.ok(),
+                    result.reason(),
+                    null);
+        }
+    }
 }
@@ -0,0 +1,184 @@
+package com.nortal.library.core.commit;
+
+import com.nortal.library.core.LibraryService.BatchCommand;
+import com.nortal.library.core.LibraryService.BatchOutcome;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collects loan commands from many request threads into micro-batches that commit as one
+ * transaction each. A single committer thread takes whatever arrives within {@code windowMicros} of
+ * the first waiting command, up to {@code maxBatch}, so under load the commit cost is shared and at
+ * rest a command waits at most one window. Commands run in arrival order.
+ *
+ * <p>A batch that fails to commit is re-run one command per transaction, so one bad command only
+ * fails its own caller. Business rejections such as {@code BORROW_LIMIT} are outcomes, not
+ * failures, and never split a batch. Whatever the runner throws, errors included, is handed to the
+ * callers it concerns; the committer thread keeps going. A caller waits at most {@code
+ * timeoutMillis}: a command still queued then is dropped, one whose batch had started may still
+ * commit.
+ */
+public class GroupCommitExecutor implements AutoCloseable {
+
+  private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+  private final Function<List<BatchCommand>, List<BatchOutcome>> runner;
+  private final int maxBatch;
+  private final long windowNanos;
+  private final long timeoutMillis;
+  private final Thread committer;
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder commands = new LongAdder();
+  private final LongAdder isolated = new LongAdder();
+  private volatile boolean closed;
+
+  /**
+   * {@code runner} runs its commands in one transaction and returns one outcome per command, as
+   * {@code LibraryService.runBatch} does.
+   */
+  public GroupCommitExecutor(
+      Function<List<BatchCommand>, List<BatchOutcome>> runner,
+      int maxBatch,
+      long windowMicros,
+      long timeoutMillis) {
+    if (maxBatch < 1) {
+      throw new IllegalArgumentException("maxBatch must be positive");
+    }
+    if (timeoutMillis < 1) {
+      throw new IllegalArgumentException("timeoutMillis must be positive");
+    }
+    this.runner = runner;
+    this.maxBatch = maxBatch;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    this.timeoutMillis = timeoutMillis;
+    this.committer = Thread.ofPlatform().name("group-commit").daemon().start(this::commitLoop);
+  }
+
+  /** Queues the command; the future completes once its batch has committed. */
+  public CompletableFuture<BatchOutcome> submit(BatchCommand command) {
+    Pending pending = new Pending(command, new CompletableFuture<>());
+    if (closed) {
+      throw new IllegalStateException("group commit executor closed");
+    }
+    queue.add(pending);
+    return pending.result;
+  }
+
+  /**
+   * {@link #submit} and wait up to the timeout, rethrowing what the command's own transaction
+   * threw.
+   */
+  public BatchOutcome execute(BatchCommand command) {
+    try {
+      return submit(command).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).join();
+    } catch (CompletionException e) {
+      switch (e.getCause()) {
+        case RuntimeException cause -> throw cause;
+        case Error cause -> throw cause;
+        case TimeoutException cause ->
+            throw new IllegalStateException("group commit timed out", cause);
+        default -> throw e;
+      }
+    }
+  }
+
+  public long batches() {
+    return batches.sum();
+  }
+
+  public long commands() {
+    return commands.sum();
+  }
+
+  /** Commands re-run in a transaction of their own after their batch failed to commit. */
+  public long isolatedReruns() {
+    return isolated.sum();
+  }
+
+  /** Stops taking commands and returns once the queued ones have committed. */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    committer.join();
+    // a submit that raced with close() and arrived after the last batch
+    for (Pending late; (late = queue.poll()) != null; ) {
+      late.result.completeExceptionally(new IllegalStateException("group commit executor closed"));
+    }
+  }
+
+  private void commitLoop() {
+    List<Pending> batch = new ArrayList<>(maxBatch);
+    while (!closed || !queue.isEmpty()) {
+      try {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        add(batch, first);
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatch) {
+          Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          add(batch, next);
+        }
+        if (!batch.isEmpty()) {
+          commit(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Throwable e) {
+        // nothing may leave a caller waiting, whatever went wrong
+        batch.forEach(pending -> pending.result.completeExceptionally(e));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  // a command whose caller has timed out is dropped rather than run for nobody
+  private static void add(List<Pending> batch, Pending pending) {
+    if (!pending.result.isDone()) {
+      batch.add(pending);
+    }
+  }
+
+  private void commit(List<Pending> batch) {
+    batches.increment();
+    commands.add(batch.size());
+    List<BatchOutcome> outcomes;
+    try {
+      outcomes = runner.apply(batch.stream().map(Pending::command).toList());
+    } catch (Throwable e) {
+      if (batch.size() == 1) {
+        batch.get(0).result.completeExceptionally(e);
+      } else {
+        batch.forEach(this::runAlone);
+      }
+      return;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      batch.get(i).result.complete(outcomes.get(i));
+    }
+  }
+
+  private void runAlone(Pending pending) {
+    isolated.increment();
+    try {
+      pending.result.complete(runner.apply(List.of(pending.command)).get(0));
+    } catch (Throwable e) {
+      pending.result.completeExceptionally(e);
+    }
+  }
+
+  private record Pending(BatchCommand command, CompletableFuture<BatchOutcome> result) {}
+}
@@ -1,16 +1,11 @@
 package com.nortal.library.core.domain;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -33,11 +28,8 @@ public class Book {
   @Column(name = "due_date")
   private LocalDate dueDate;
 
-  @ElementCollection
-  @CollectionTable(name = "book_reservations", joinColumns = @JoinColumn(name = "book_id"))
-  @OrderColumn(name = "position")
-  @Column(name = "member_id")
-  private List<String> reservationQueue = new ArrayList<>();
+  // concurrent read-modify-write cycles on the same book fail on commit instead of both applying
+  @Version private Long version;
 
   public Book(String id, String title) {
     this.id = id;
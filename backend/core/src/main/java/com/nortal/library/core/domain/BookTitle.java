@@ -0,0 +1,4 @@
+package com.nortal.library.core.domain;
+
+/** Id and title only, for views that do not need the rest of the book. */
+public record BookTitle(String id, String title) {}
@@ -0,0 +1,9 @@
+package com.nortal.library.core.domain;
+
+import java.time.LocalDate;
+
+/**
+ * A book as lists and searches show it, read straight from its row. Not an entity, so nothing
+ * tracks it and nothing it does can be written back.
+ */
+public record BookView(String id, String title, String loanedTo, LocalDate dueDate) {}
@@ -0,0 +1,4 @@
+package com.nortal.library.core.domain;
+
+/** Library-wide totals: books out on loan, members waiting in queues and the longest queue. */
+public record CirculationStats(long activeLoans, long queuedReservations, long longestQueue) {}
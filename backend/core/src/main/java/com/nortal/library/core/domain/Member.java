@@ -20,6 +20,10 @@ public class Member {
   @Column(nullable = false)
   private String name;
 
+  // maintained with targeted updates through MemberRepository, never by entity writes
+  @Column(name = "active_loans", nullable = false, updatable = false)
+  private int activeLoans;
+
   public Member(String id, String name) {
     this.id = id;
     this.name = name;
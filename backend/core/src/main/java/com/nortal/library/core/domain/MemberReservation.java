@@ -0,0 +1,4 @@
+package com.nortal.library.core.domain;
+
+/** A member's place in one book's reservation queue; position 0 is the head. */
+public record MemberReservation(String bookId, long position) {}
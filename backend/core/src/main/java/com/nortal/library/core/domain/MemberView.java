@@ -0,0 +1,4 @@
+package com.nortal.library.core.domain;
+
+/** A member as the member list shows it; see {@link BookView}. */
+public record MemberView(String id, String name) {}
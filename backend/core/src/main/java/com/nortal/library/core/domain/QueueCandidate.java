@@ -0,0 +1,7 @@
+package com.nortal.library.core.domain;
+
+/**
+ * A queued member as seen by a return handoff: whether they still exist and how many loans they
+ * hold.
+ */
+public record QueueCandidate(String memberId, boolean memberExists, int activeLoans) {}
@@ -0,0 +1,46 @@
+package com.nortal.library.core.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One member waiting for one book. Queue order is the insertion sequence, so joining, leaving or
+ * reaching the head of a queue touches only that member's row.
+ */
+@Entity
+@Table(
+    name = "book_reservations",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uq_book_reservations_book_member",
+            columnNames = {"book_id", "member_id"}),
+    indexes = @Index(name = "idx_book_reservations_book_seq", columnList = "book_id, seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class Reservation {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long seq;
+
+  @Column(name = "book_id", nullable = false)
+  private String bookId;
+
+  @Column(name = "member_id", nullable = false)
+  private String memberId;
+
+  public Reservation(String bookId, String memberId) {
+    this.bookId = bookId;
+    this.memberId = memberId;
+  }
+}
@@ -0,0 +1,59 @@
+package com.nortal.library.core.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Active loans ordered by due date, then book id. Lets overdue queries walk only the loans that are
+ * actually past due, in the same order the repository pages them.
+ */
+public class DueDateIndex {
+
+  private static final Comparator<Entry> ORDER =
+      Comparator.comparing(Entry::dueDate).thenComparing(Entry::bookId);
+
+  private final NavigableSet<Entry> byDueDate = new ConcurrentSkipListSet<>(ORDER);
+  private final Map<String, LocalDate> dueDates = new ConcurrentHashMap<>();
+
+  /** Records the book's due date; {@code null} means the book is no longer on loan. */
+  public synchronized void put(String bookId, LocalDate dueDate) {
+    LocalDate previous = dueDate == null ? dueDates.remove(bookId) : dueDates.put(bookId, dueDate);
+    if (previous != null) {
+      byDueDate.remove(new Entry(previous, bookId));
+    }
+    if (dueDate != null) {
+      byDueDate.add(new Entry(dueDate, bookId));
+    }
+  }
+
+  public void remove(String bookId) {
+    put(bookId, null);
+  }
+
+  /**
+   * Up to {@code limit} loans due strictly before {@code date}, starting after the given position
+   * ({@code afterDueDate}/{@code afterId} both {@code null} for the first page).
+   */
+  public List<Entry> dueBefore(LocalDate date, LocalDate afterDueDate, String afterId, int limit) {
+    NavigableSet<Entry> range =
+        afterDueDate == null
+            ? byDueDate
+            : byDueDate.tailSet(new Entry(afterDueDate, afterId), false);
+    List<Entry> result = new ArrayList<>();
+    for (Entry entry : range) {
+      if (result.size() >= limit || !entry.dueDate().isBefore(date)) {
+        break;
+      }
+      result.add(entry);
+    }
+    return result;
+  }
+
+  public record Entry(LocalDate dueDate, String bookId) {}
+}
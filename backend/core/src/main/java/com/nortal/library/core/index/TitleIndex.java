@@ -0,0 +1,112 @@
+package com.nortal.library.core.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram inverted index over book titles. Titles are lowercased exactly like the substring check
+ * in {@code LibraryService.searchBooks}, so {@link #search(String)} returns the same ids a full
+ * scan would, without touching the repository.
+ */
+public class TitleIndex {
+
+  private static final int GRAM = 3;
+
+  private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+  private final Map<String, String> titles = new ConcurrentHashMap<>();
+
+  public void put(String bookId, String title) {
+    String normalized = normalize(title);
+    String previous = titles.put(bookId, normalized);
+    if (previous != null) {
+      if (previous.equals(normalized)) {
+        return;
+      }
+      unlink(bookId, previous);
+    }
+    for (String gram : grams(normalized)) {
+      postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(bookId);
+    }
+  }
+
+  public void remove(String bookId) {
+    String previous = titles.remove(bookId);
+    if (previous != null) {
+      unlink(bookId, previous);
+    }
+  }
+
+  /** Ids of indexed books whose title contains {@code query}, ignoring case. */
+  public Set<String> search(String query) {
+    String needle = normalize(query);
+    if (needle.length() < GRAM) {
+      // too short to have a trigram; the title map is still far cheaper than a table scan
+      Set<String> result = new HashSet<>();
+      titles.forEach(
+          (id, title) -> {
+            if (title.contains(needle)) {
+              result.add(id);
+            }
+          });
+      return result;
+    }
+
+    List<Set<String>> lists = new ArrayList<>();
+    for (String gram : grams(needle)) {
+      Set<String> posting = postings.get(gram);
+      if (posting == null || posting.isEmpty()) {
+        return Set.of();
+      }
+      lists.add(posting);
+    }
+    lists.sort(Comparator.comparingInt(Set::size));
+
+    Set<String> result = new HashSet<>();
+    for (String id : lists.getFirst()) {
+      if (inAll(id, lists)) {
+        String title = titles.get(id);
+        // trigrams only prove the pieces are present, not that they are adjacent
+        if (title != null && title.contains(needle)) {
+          result.add(id);
+        }
+      }
+    }
+    return result;
+  }
+
+  private boolean inAll(String id, List<Set<String>> lists) {
+    for (int i = 1; i < lists.size(); i++) {
+      if (!lists.get(i).contains(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void unlink(String bookId, String title) {
+    for (String gram : grams(title)) {
+      Set<String> posting = postings.get(gram);
+      if (posting != null) {
+        posting.remove(bookId);
+      }
+    }
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM));
+    }
+    return grams;
+  }
+
+  private static String normalize(String text) {
+    return text == null ? "" : text.toLowerCase();
+  }
+}
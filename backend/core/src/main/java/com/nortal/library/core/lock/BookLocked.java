@@ -0,0 +1,14 @@
+package com.nortal.library.core.lock;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation that must hold its book's {@link StripedLockManager} stripe for the
+ * whole transaction. The first parameter of the method is the book id.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BookLocked {}
@@ -0,0 +1,15 @@
+package com.nortal.library.core.lock;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation on several books that must hold every one of their {@link
+ * StripedLockManager} stripes for the whole transaction, like {@link BookLocked} does for one. The
+ * first parameter of the method is a list of {@code LibraryService.BatchCommand}s.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BooksLocked {}
@@ -0,0 +1,131 @@
+package com.nortal.library.core.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of fair locks that book ids hash onto. Operations on the same book queue up in
+ * arrival order; operations on different books only meet when their ids land on the same stripe,
+ * which more stripes make rarer. Wait time is recorded per stripe so hot titles show up.
+ */
+public class StripedLockManager {
+
+  private final Stripe[] stripes;
+  private final int mask;
+
+  /** {@code stripeCount} is rounded up to a power of two. */
+  public StripedLockManager(int stripeCount) {
+    if (stripeCount < 1) {
+      throw new IllegalArgumentException("stripeCount must be positive");
+    }
+    int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+    stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe();
+    }
+    mask = size - 1;
+  }
+
+  public int stripeCount() {
+    return stripes.length;
+  }
+
+  public int stripeOf(String bookId) {
+    int h = bookId.hashCode();
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /** Blocks until the book's stripe is held and returns it; pass it to {@link #unlock(int)}. */
+  public int lock(String bookId) throws InterruptedException {
+    int index = stripeOf(bookId);
+    lock(index);
+    return index;
+  }
+
+  private void lock(int index) throws InterruptedException {
+    Stripe stripe = stripes[index];
+    // a timed tryLock, unlike tryLock(), does not barge past threads already queued on a fair lock
+    if (!stripe.lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+      long start = System.nanoTime();
+      stripe.lock.lockInterruptibly();
+      long waited = System.nanoTime() - start;
+      stripe.contended.increment();
+      stripe.waitNanos.add(waited);
+      stripe.maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+    stripe.acquisitions.increment();
+  }
+
+  public void unlock(int stripe) {
+    stripes[stripe].lock.unlock();
+  }
+
+  /**
+   * Holds the stripes of all {@code bookIds} and returns them; pass them to {@link
+   * #unlockAll(int[])}. Stripes are taken in ascending order, so two callers locking overlapping
+   * sets cannot deadlock, and one-book callers never wait for more than one stripe.
+   */
+  public int[] lockAll(Collection<String> bookIds) throws InterruptedException {
+    int[] indexes = bookIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+    int held = 0;
+    try {
+      for (; held < indexes.length; held++) {
+        lock(indexes[held]);
+      }
+    } finally {
+      if (held < indexes.length) {
+        for (int i = held - 1; i >= 0; i--) {
+          unlock(indexes[i]);
+        }
+      }
+    }
+    return indexes;
+  }
+
+  public void unlockAll(int[] stripes) {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      unlock(stripes[i]);
+    }
+  }
+
+  /** Counters of every stripe that has been acquired at least once. */
+  public List<StripeStats> stats() {
+    List<StripeStats> result = new ArrayList<>();
+    for (int i = 0; i < stripes.length; i++) {
+      Stripe stripe = stripes[i];
+      long acquisitions = stripe.acquisitions.sum();
+      if (acquisitions > 0) {
+        result.add(
+            new StripeStats(
+                i,
+                acquisitions,
+                stripe.contended.sum(),
+                stripe.waitNanos.sum(),
+                stripe.maxWaitNanos.get(),
+                stripe.lock.getQueueLength()));
+      }
+    }
+    return result;
+  }
+
+  public record StripeStats(
+      int stripe,
+      long acquisitions,
+      long contended,
+      long totalWaitNanos,
+      long maxWaitNanos,
+      int queued) {}
+
+  private static final class Stripe {
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+  }
+}
@@ -1,20 +1,94 @@
 package com.nortal.library.core.port;
 
 import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookTitle;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.domain.CirculationStats;
+import com.nortal.library.core.domain.MemberReservation;
+import com.nortal.library.core.domain.QueueCandidate;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookRepository {
   Optional<Book> findById(String id);
 
-  List<Book> findAll();
+  /** Every book ordered by id, as a read-only view. */
+  List<BookView> findAll();
+
+  /**
+   * Feeds every book, ordered by id, to {@code consumer} from a forward-only cursor. Books are
+   * released after the consumer returns, so memory stays flat whatever the catalog size.
+   */
+  void streamAll(Consumer<Book> consumer);
+
+  List<Book> findAllById(Collection<String> ids);
+
+  List<BookView> findViewsById(Collection<String> ids);
+
+  /**
+   * Up to {@code limit} books ordered by id, starting after {@code afterId} (null for the start).
+   */
+  List<BookView> findPageAfter(String afterId, int limit);
+
+  List<BookTitle> findTitlesById(Collection<String> ids);
 
   Book save(Book book);
 
+  /**
+   * Inserts new books in batched statements, skipping the lookup {@link #save} makes to tell an
+   * insert from an update. None of the ids may exist yet.
+   */
+  void insertAll(List<Book> books);
+
   void delete(Book book);
 
   boolean existsById(String id);
 
   // added this for canMemberBorrow
   long countByLoanedTo(String memberId);
+
+  List<Book> findByLoanedTo(String memberId);
+
+  /** Every queue the member is waiting in, with their position in it. */
+  List<MemberReservation> findReservationsByMember(String memberId);
+
+  Optional<String> findQueueHead(String bookId);
+
+  boolean isQueued(String bookId, String memberId);
+
+  /** Appends the member to the back of the book's queue. */
+  void enqueue(String bookId, String memberId);
+
+  /**
+   * Appends each book's members to the back of its queue, in list order, as batched statements.
+   * None of them may be queued for that book yet.
+   */
+  void enqueueAll(Map<String, List<String>> queues);
+
+  /** Takes the member out of the book's queue; {@code false} if they were not in it. */
+  boolean dequeue(String bookId, String memberId);
+
+  void clearQueue(String bookId);
+
+  /** The book's queue, head first, with each member's existence and loan count in one lookup. */
+  List<QueueCandidate> findQueueCandidates(String bookId);
+
+  /** Takes all the given members out of the book's queue at once. */
+  void dequeueAll(String bookId, Collection<String> memberIds);
+
+  /** Queues of the given books, head first; books nobody waits for are absent from the map. */
+  Map<String, List<String>> findQueues(Collection<String> bookIds);
+
+  /**
+   * Loans due strictly before {@code date}, ordered by due date then id. Pass the due date and id
+   * of the last book already seen to continue from there, or {@code null}s for the first page.
+   */
+  List<BookView> findLoansDueBefore(
+      LocalDate date, LocalDate afterDueDate, String afterId, int limit);
+
+  CirculationStats circulationStats();
 }
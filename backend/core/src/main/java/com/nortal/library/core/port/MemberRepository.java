@@ -1,17 +1,43 @@
 package com.nortal.library.core.port;
 
 import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface MemberRepository {
   Optional<Member> findById(String id);
 
-  List<Member> findAll();
+  /** Every member ordered by id, as a read-only view. */
+  List<MemberView> findAll();
+
+  List<Member> findAllById(Collection<String> ids);
+
+  /** Like {@code BookRepository.streamAll}: every member, ordered by id, from a cursor. */
+  void streamAll(Consumer<Member> consumer);
+
+  /**
+   * Up to {@code limit} members ordered by id, starting after {@code afterId} (null for the start).
+   */
+  List<MemberView> findPageAfter(String afterId, int limit);
 
   Member save(Member member);
 
+  /** Like {@code BookRepository.insertAll}: new members only, in batched statements. */
+  void insertAll(List<Member> members);
+
   void delete(Member member);
 
   boolean existsById(String id);
+
+  /** The member's active-loan counter; 0 for unknown members. */
+  int activeLoanCount(String memberId);
+
+  /** Moves the counter by {@code delta} in the caller's transaction. */
+  void adjustActiveLoans(String memberId, int delta);
+
+  /** Recomputes every counter from the books' loans and returns how many had drifted. */
+  int reconcileActiveLoans();
 }
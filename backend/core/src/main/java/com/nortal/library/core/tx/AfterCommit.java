@@ -0,0 +1,15 @@
+package com.nortal.library.core.tx;
+
+/**
+ * Defers an action until the caller's transaction has committed, so in-memory state derived from
+ * the rows never runs ahead of them. Dropped when the transaction rolls back.
+ */
+@FunctionalInterface
+public interface AfterCommit {
+
+  /** Runs every action at once, for callers without transactions. */
+  AfterCommit IMMEDIATE = Runnable::run;
+
+  /** Runs {@code action} after the current transaction commits, or at once when there is none. */
+  void run(Runnable action);
+}
@@ -0,0 +1,17 @@
+package com.nortal.library.core.tx;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation by or for one member, whose id is the parameter at {@link
+ * #memberParameter()}. When reads may be served from a replica, that member still reads its own
+ * writes.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MemberOperation {
+  int memberParameter() default 0;
+}
@@ -0,0 +1,14 @@
+package com.nortal.library.core.tx;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service read that runs in a read-only transaction: nothing is flushed and nothing it
+ * loads is dirty-checked. Called inside a write transaction, it simply joins it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnlyTransaction {}
@@ -0,0 +1,15 @@
+package com.nortal.library.core.tx;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service write that may be re-run whole after losing an optimistic-locking race: it works
+ * on a single book or member and re-reads everything it decides on. Batches and imports stay
+ * unmarked, since replaying them would repeat work already reported to the caller.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryOnConflict {}
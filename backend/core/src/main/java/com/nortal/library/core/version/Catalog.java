@@ -0,0 +1,9 @@
+package com.nortal.library.core.version;
+
+/** The parts of the library whose changes {@link CatalogVersions} counts separately. */
+public enum Catalog {
+  /** Books with their loans, due dates and reservation queues. */
+  BOOKS,
+  /** Members. */
+  MEMBERS
+}
@@ -0,0 +1,27 @@
+package com.nortal.library.core.version;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One counter per {@link Catalog} that grows with every committed change to it, so a reader can
+ * tell whether anything changed since it last looked without querying. The counters start from zero
+ * in every process; {@link #epoch()} tells one process's versions from another's.
+ */
+public class CatalogVersions {
+
+  private final long epoch = new SecureRandom().nextLong();
+  private final AtomicLongArray versions = new AtomicLongArray(Catalog.values().length);
+
+  public long epoch() {
+    return epoch;
+  }
+
+  public long version(Catalog catalog) {
+    return versions.get(catalog.ordinal());
+  }
+
+  public void bump(Catalog catalog) {
+    versions.incrementAndGet(catalog.ordinal());
+  }
+}
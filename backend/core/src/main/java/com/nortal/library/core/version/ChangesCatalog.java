@@ -0,0 +1,16 @@
+package com.nortal.library.core.version;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation that may change the given catalogs. Their {@link CatalogVersions} are
+ * bumped once it has committed, unless it reports that it failed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ChangesCatalog {
+  Catalog[] value();
+}
@@ -0,0 +1,64 @@
+package com.nortal.library.core.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.nortal.library.core.index.DueDateIndex.Entry;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DueDateIndexTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+  private final DueDateIndex index = new DueDateIndex();
+
+  @Test
+  void listsLoansDueStrictlyBeforeTheDateByDueDateThenId() {
+    index.put("b3", TODAY.minusDays(2));
+    index.put("b1", TODAY.minusDays(1));
+    index.put("b2", TODAY.minusDays(2));
+    index.put("b4", TODAY);
+    index.put("b5", TODAY.plusDays(3));
+
+    assertEquals(
+        List.of(
+            new Entry(TODAY.minusDays(2), "b2"),
+            new Entry(TODAY.minusDays(2), "b3"),
+            new Entry(TODAY.minusDays(1), "b1")),
+        index.dueBefore(TODAY, null, null, 10));
+  }
+
+  @Test
+  void pagesFromThePreviousPosition() {
+    index.put("b1", TODAY.minusDays(3));
+    index.put("b2", TODAY.minusDays(2));
+    index.put("b3", TODAY.minusDays(2));
+    index.put("b4", TODAY.minusDays(1));
+
+    List<Entry> first = index.dueBefore(TODAY, null, null, 2);
+    Entry last = first.getLast();
+    List<Entry> second = index.dueBefore(TODAY, last.dueDate(), last.bookId(), 2);
+
+    assertEquals(
+        List.of(new Entry(TODAY.minusDays(3), "b1"), new Entry(TODAY.minusDays(2), "b2")), first);
+    assertEquals(
+        List.of(new Entry(TODAY.minusDays(2), "b3"), new Entry(TODAY.minusDays(1), "b4")), second);
+  }
+
+  @Test
+  void extensionsReturnsAndRemovalsReplaceTheOldEntry() {
+    index.put("b1", TODAY.minusDays(5));
+    index.put("b2", TODAY.minusDays(4));
+    index.put("b3", TODAY.minusDays(3));
+
+    index.put("b1", TODAY.plusDays(7));
+    index.put("b2", null);
+    index.remove("b3");
+
+    assertEquals(List.of(), index.dueBefore(TODAY, null, null, 10));
+    assertEquals(
+        List.of(new Entry(TODAY.plusDays(7), "b1")),
+        index.dueBefore(TODAY.plusDays(8), null, null, 10));
+  }
+}
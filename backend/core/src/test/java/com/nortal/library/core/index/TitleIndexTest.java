@@ -0,0 +1,52 @@
+package com.nortal.library.core.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TitleIndexTest {
+
+  private final TitleIndex index = new TitleIndex();
+
+  @Test
+  void findsTitlesContainingTheQueryIgnoringCase() {
+    index.put("b1", "The Hobbit");
+    index.put("b2", "Hobbits and Holes");
+    index.put("b3", "Dune");
+
+    assertEquals(Set.of("b1", "b2"), index.search("HOBBIT"));
+    assertEquals(Set.of("b1"), index.search("the hob"));
+    assertEquals(Set.of("b3"), index.search("une"));
+  }
+
+  @Test
+  void matchesOnlyAdjacentGrams() {
+    // "abc" and "cde" are both grams of the title, "abcde" is not in it
+    index.put("b1", "abc-cde");
+
+    assertEquals(Set.of(), index.search("abcde"));
+    assertEquals(Set.of("b1"), index.search("c-c"));
+  }
+
+  @Test
+  void queriesShorterThanAGramScanTheTitles() {
+    index.put("b1", "Go");
+    index.put("b2", "Dune");
+
+    assertEquals(Set.of("b1"), index.search("g"));
+    assertEquals(Set.of("b1", "b2"), index.search(""));
+  }
+
+  @Test
+  void renamesAndRemovalsDropTheOldGrams() {
+    index.put("b1", "Dune");
+    index.put("b1", "Emma");
+    index.put("b2", "Dune Messiah");
+    index.remove("b2");
+
+    assertEquals(Set.of(), index.search("dune"));
+    assertEquals(Set.of("b1"), index.search("emm"));
+    assertEquals(Set.of(), index.search("mes"));
+  }
+}
@@ -0,0 +1,119 @@
+package com.nortal.library.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks the load-test books and members once the run has settled. The book list and the member
+ * summaries are two independent reads of the same loans: each is checked against the loan limit on
+ * its own, and a loan only one of them knows about shows up as a disagreement.
+ */
+final class InvariantCheck {
+
+  private final LibraryClient client;
+  private final LoadTestOptions options;
+  private final List<String> violations = new ArrayList<>();
+
+  InvariantCheck(LibraryClient client, LoadTestOptions options) {
+    this.client = client;
+    this.options = options;
+  }
+
+  /** Prints every violation and returns whether there were none. */
+  boolean run(Workload workload, PrintStream out) throws IOException, InterruptedException {
+    Set<String> books = new HashSet<>(workload.bookIds());
+    Map<String, LibraryClient.Book> byId = new HashMap<>();
+    Map<String, Integer> loansByMember = new HashMap<>();
+    for (LibraryClient.Book book : client.books().items()) {
+      if (!books.contains(book.id())) {
+        continue;
+      }
+      byId.put(book.id(), book);
+      if (book.loanedTo() != null) {
+        loansByMember.merge(book.loanedTo(), 1, Integer::sum);
+      }
+      List<String> queue = book.reservationQueue() == null ? List.of() : book.reservationQueue();
+      if (new HashSet<>(queue).size() != queue.size()) {
+        violations.add(book.id() + " has a member queued twice: " + queue);
+      }
+      if (book.loanedTo() != null && queue.contains(book.loanedTo())) {
+        violations.add(book.id() + " is queued for by its own holder " + book.loanedTo());
+      }
+    }
+    if (byId.size() != books.size()) {
+      violations.add((books.size() - byId.size()) + " load-test books are missing from /api/books");
+    }
+
+    for (Map.Entry<String, Integer> holder : loansByMember.entrySet()) {
+      if (holder.getValue() > options.maxLoans()) {
+        violations.add(
+            holder.getKey()
+                + " holds "
+                + holder.getValue()
+                + " books by /api/books, over the limit");
+      }
+    }
+
+    for (Workload.Agent agent : workload.agents()) {
+      LibraryClient.Summary summary = client.summary(agent.memberId);
+      if (!summary.ok()) {
+        violations.add(agent.memberId + " summary failed: " + summary.reason());
+        continue;
+      }
+      if (summary.loans().size() > options.maxLoans()) {
+        violations.add(
+            agent.memberId
+                + " holds "
+                + summary.loans().size()
+                + " books by its summary, over the limit");
+      }
+      int listed = loansByMember.getOrDefault(agent.memberId, 0);
+      if (listed != summary.loans().size()) {
+        violations.add(
+            agent.memberId
+                + " holds "
+                + listed
+                + " books by /api/books but "
+                + summary.loans().size()
+                + " by its summary");
+      }
+      for (LibraryClient.Loan loan : summary.loans()) {
+        LibraryClient.Book book = byId.get(loan.bookId());
+        if (book != null && !agent.memberId.equals(book.loanedTo())) {
+          violations.add(
+              loan.bookId()
+                  + " is "
+                  + agent.memberId
+                  + "'s by summary, "
+                  + book.loanedTo()
+                  + "'s by list");
+        }
+      }
+    }
+
+    // counters behind the loan limit; drift means some path skipped them under concurrency
+    LibraryClient.Reconcile reconcile = client.reconcileLoans();
+    if (reconcile.drifted() > 0) {
+      violations.add(reconcile.drifted() + " active-loan counters had drifted from the loans");
+    }
+
+    out.printf("%nInvariants%n");
+    if (violations.isEmpty()) {
+      out.printf(
+          "  ok: %d books, %d members, %d on loan, none over %d loans, counters consistent%n",
+          byId.size(),
+          workload.agents().size(),
+          loansByMember.values().stream().mapToInt(Integer::intValue).sum(),
+          options.maxLoans());
+      return true;
+    }
+    violations.forEach(v -> out.printf("  VIOLATED: %s%n", v));
+    return false;
+  }
+}
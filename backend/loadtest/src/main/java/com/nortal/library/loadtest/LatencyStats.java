@@ -0,0 +1,86 @@
+package com.nortal.library.loadtest;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms per operation and a count per operation and outcome. An outcome is {@code ok},
+ * {@code rejected <reason>} for a request the library turned down, or {@code error <cause>} for a
+ * failed request or a non-2xx status.
+ */
+final class LatencyStats {
+
+  // up to a minute, in microseconds, to three significant digits
+  private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+  private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+  private final LongAdder dropped = new LongAdder();
+
+  LatencyStats() {
+    for (Operation operation : Operation.values()) {
+      latencies.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+    }
+  }
+
+  void record(Operation operation, long nanos, String outcome) {
+    latencies
+        .get(operation)
+        .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS));
+    outcomes.computeIfAbsent(operation.label + " " + outcome, key -> new LongAdder()).increment();
+  }
+
+  /** An open-loop arrival that found {@code --max-in-flight} requests already waiting. */
+  void drop() {
+    dropped.increment();
+  }
+
+  long errors() {
+    return outcomes.entrySet().stream()
+        .filter(e -> e.getKey().contains(" error "))
+        .mapToLong(e -> e.getValue().sum())
+        .sum();
+  }
+
+  void print(PrintStream out, double seconds) {
+    out.printf(
+        "%n%-8s %9s %9s %9s %9s %9s %9s %9s%n",
+        "op", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    long total = 0;
+    for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+      Histogram h = entry.getValue();
+      if (h.getTotalCount() == 0) {
+        continue;
+      }
+      total += h.getTotalCount();
+      out.printf(
+          "%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+          entry.getKey().label,
+          h.getTotalCount(),
+          h.getTotalCount() / seconds,
+          millis(h.getValueAtPercentile(50)),
+          millis(h.getValueAtPercentile(90)),
+          millis(h.getValueAtPercentile(99)),
+          millis(h.getValueAtPercentile(99.9)),
+          millis(h.getMaxValue()));
+    }
+    out.printf("%-8s %9d %9.1f%n", "all", total, total / seconds);
+
+    out.printf("%nOutcomes%n");
+    new TreeMap<>(outcomes).forEach((key, count) -> out.printf("  %-40s %9d%n", key, count.sum()));
+    if (dropped.sum() > 0) {
+      out.printf("  %-40s %9d%n", "dropped (max in flight)", dropped.sum());
+    }
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
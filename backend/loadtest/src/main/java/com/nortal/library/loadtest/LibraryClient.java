@@ -0,0 +1,134 @@
+package com.nortal.library.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/** The library's JSON API over one shared {@link HttpClient}, run on virtual threads. */
+final class LibraryClient {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final String baseUrl;
+  private final String token;
+  private final HttpClient http;
+  private final ObjectMapper json =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  LibraryClient(String baseUrl, String token) {
+    this.baseUrl = baseUrl;
+    this.token = token;
+    this.http =
+        HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+  }
+
+  record Result(boolean ok, String reason) {}
+
+  record ReturnResult(boolean ok, String nextMemberId) {}
+
+  record Book(String id, String loanedTo, List<String> reservationQueue) {}
+
+  record Books(List<Book> items) {}
+
+  record Loan(String bookId) {}
+
+  record Reservation(String bookId, int position) {}
+
+  record Summary(boolean ok, String reason, List<Loan> loans, List<Reservation> reservations) {}
+
+  record Reconcile(boolean ok, int drifted) {}
+
+  /** A non-2xx answer; the status is what the error breakdown reports. */
+  static final class HttpStatusException extends IOException {
+    final int status;
+
+    HttpStatusException(int status, String path) {
+      super("HTTP " + status + " from " + path);
+      this.status = status;
+    }
+  }
+
+  Result borrow(String bookId, String memberId) throws IOException, InterruptedException {
+    return post("/api/borrow", Map.of("bookId", bookId, "memberId", memberId), Result.class);
+  }
+
+  ReturnResult giveBack(String bookId, String memberId) throws IOException, InterruptedException {
+    return post("/api/return", Map.of("bookId", bookId, "memberId", memberId), ReturnResult.class);
+  }
+
+  Result reserve(String bookId, String memberId) throws IOException, InterruptedException {
+    return post("/api/reserve", Map.of("bookId", bookId, "memberId", memberId), Result.class);
+  }
+
+  Result cancel(String bookId, String memberId) throws IOException, InterruptedException {
+    return post(
+        "/api/cancel-reservation", Map.of("bookId", bookId, "memberId", memberId), Result.class);
+  }
+
+  Books books() throws IOException, InterruptedException {
+    return get("/api/books", Books.class);
+  }
+
+  Summary summary(String memberId) throws IOException, InterruptedException {
+    return get("/api/members/" + memberId + "/summary", Summary.class);
+  }
+
+  Result createMember(String id, String name) throws IOException, InterruptedException {
+    return post("/api/members", Map.of("id", id, "name", name), Result.class);
+  }
+
+  Result createBook(String id, String title) throws IOException, InterruptedException {
+    return post("/api/books", Map.of("id", id, "title", title), Result.class);
+  }
+
+  Reconcile reconcileLoans() throws IOException, InterruptedException {
+    return post("/api/reconcile-loans", Map.of(), Reconcile.class);
+  }
+
+  void awaitHealthy() throws IOException, InterruptedException {
+    get("/api/health", Map.class);
+  }
+
+  private <T> T get(String path, Class<T> type) throws IOException, InterruptedException {
+    return send(request(path).GET().build(), path, type);
+  }
+
+  private <T> T post(String path, Object body, Class<T> type)
+      throws IOException, InterruptedException {
+    HttpRequest request =
+        request(path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+            .build();
+    return send(request, path, type);
+  }
+
+  private HttpRequest.Builder request(String path) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+    if (!token.isEmpty()) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder;
+  }
+
+  private <T> T send(HttpRequest request, String path, Class<T> type)
+      throws IOException, InterruptedException {
+    HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() / 100 != 2) {
+      throw new HttpStatusException(response.statusCode(), path);
+    }
+    return json.readValue(response.body(), type);
+  }
+}
@@ -0,0 +1,150 @@
+package com.nortal.library.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Concurrent load against a running library API, followed by a consistency check of what it left
+ * behind. Closed mode keeps {@code --users} requests in flight; open mode starts requests at {@code
+ * --rate} per second regardless of how the server keeps up and measures each from its scheduled
+ * start, so queueing shows up in the latencies instead of hiding in a lower request rate. Exits
+ * non-zero when an invariant is violated.
+ */
+public final class LoadTest {
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options;
+    try {
+      options = LoadTestOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(2);
+      return;
+    }
+    LibraryClient client = new LibraryClient(options.baseUrl(), options.token());
+    client.awaitHealthy();
+
+    LatencyStats stats = new LatencyStats();
+    Workload workload = new Workload(client, stats, options);
+    if (options.setup()) {
+      setUp(client, workload, options);
+    }
+
+    System.out.printf(
+        "%s loop against %s: %s, %d books (zipf %.2f), %d members, %ds + %ds warmup%n",
+        options.mode().name().toLowerCase(),
+        options.baseUrl(),
+        options.mode() == LoadTestOptions.Mode.OPEN
+            ? options.rate() + " req/s"
+            : options.users() + " users",
+        options.books(),
+        options.zipfExponent(),
+        options.members(),
+        options.duration().toSeconds(),
+        options.warmup().toSeconds());
+
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+    if (options.mode() == LoadTestOptions.Mode.OPEN) {
+      runOpen(workload, stats, options, start, measureFrom, end);
+    } else {
+      runClosed(workload, options, measureFrom, end);
+    }
+    double seconds = (System.nanoTime() - measureFrom) / 1e9;
+
+    stats.print(System.out, seconds);
+    boolean consistent = new InvariantCheck(client, options).run(workload, System.out);
+    System.exit(consistent ? 0 : 1);
+  }
+
+  // createBook/createMember on an existing id reset it, so every run starts from a clean catalog
+  private static void setUp(LibraryClient client, Workload workload, LoadTestOptions options)
+      throws Exception {
+    for (Workload.Agent agent : workload.agents()) {
+      client.createMember(agent.memberId, "Load test " + agent.memberId);
+    }
+    for (String bookId : workload.bookIds()) {
+      client.createBook(bookId, "Load test " + bookId);
+    }
+    System.out.printf(
+        "Set up %d books and %d members under prefix '%s'%n",
+        options.books(), options.members(), options.prefix());
+  }
+
+  private static void runClosed(
+      Workload workload, LoadTestOptions options, long measureFrom, long end)
+      throws InterruptedException {
+    SplittableRandom seeds = new SplittableRandom(options.seed());
+    long thinkNanos = options.think().toNanos();
+    List<Thread> users = new ArrayList<>();
+    for (int u = 0; u < options.users(); u++) {
+      Workload.Agent agent = workload.agent(u);
+      SplittableRandom random = seeds.split();
+      users.add(
+          Thread.ofVirtual()
+              .name("user-" + u)
+              .start(
+                  () -> {
+                    for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+                      workload.runOne(agent, random, now, now >= measureFrom);
+                      if (thinkNanos > 0) {
+                        LockSupport.parkNanos(thinkNanos);
+                      }
+                    }
+                  }));
+    }
+    for (Thread user : users) {
+      user.join();
+    }
+  }
+
+  private static void runOpen(
+      Workload workload,
+      LatencyStats stats,
+      LoadTestOptions options,
+      long start,
+      long measureFrom,
+      long end)
+      throws InterruptedException {
+    SplittableRandom random = new SplittableRandom(options.seed());
+    Semaphore inFlight = new Semaphore(options.maxInFlight());
+    double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+    for (long i = 0; ; i++) {
+      long scheduled = start + (long) (i * intervalNanos);
+      if (scheduled >= end) {
+        break;
+      }
+      long wait = scheduled - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      boolean measured = scheduled >= measureFrom;
+      if (!inFlight.tryAcquire()) {
+        if (measured) {
+          stats.drop();
+        }
+        continue;
+      }
+      Workload.Agent agent = workload.agent(random.nextInt(options.members()));
+      SplittableRandom requestRandom = random.split();
+      Thread.ofVirtual()
+          .start(
+              () -> {
+                try {
+                  workload.runOne(agent, requestRandom, scheduled, measured);
+                } finally {
+                  inFlight.release();
+                }
+              });
+    }
+    // let the stragglers finish before the invariants are read
+    inFlight.acquire(options.maxInFlight());
+  }
+}
@@ -0,0 +1,127 @@
+package com.nortal.library.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Command line options; every one has a default, so a bare run works against a local server. */
+record LoadTestOptions(
+    String baseUrl,
+    String token,
+    Mode mode,
+    int users,
+    double rate,
+    int maxInFlight,
+    Duration duration,
+    Duration warmup,
+    Duration think,
+    int books,
+    int members,
+    double zipfExponent,
+    Map<Operation, Integer> mix,
+    String prefix,
+    boolean setup,
+    int maxLoans,
+    long seed) {
+
+  enum Mode {
+    /** Each virtual user sends its next request when the previous one has answered. */
+    CLOSED,
+    /** Requests start at a fixed rate whether or not earlier ones have answered. */
+    OPEN
+  }
+
+  static final String USAGE =
+      """
+      Usage: loadtest [--option=value ...]
+        --base-url=http://localhost:8080  server under test
+        --token=                          bearer token, when the server enforces auth
+        --mode=closed|open                closed: --users loop back to back; open: --rate arrivals/s
+        --users=50                        virtual users in closed mode
+        --rate=100                        arrivals per second in open mode
+        --max-in-flight=1000              open mode: arrivals beyond this are dropped and counted
+        --duration=30s  --warmup=5s       measured time, after an unmeasured warmup
+        --think=0ms                       pause between a closed-mode user's requests
+        --books=200  --members=100        catalog created under --prefix
+        --zipf=1.1                        popularity skew of books; 0 is uniform
+        --mix=borrow=30,return=25,reserve=15,cancel=10,books=10,summary=10
+        --prefix=lt                       id prefix of the load-test books and members
+        --setup=true                      (re)create the books and members before the run
+        --max-loans=5                     loan limit checked afterwards
+        --seed=42                         random seed
+      """;
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      if (arg.equals("--help") || arg.equals("-h")) {
+        throw new IllegalArgumentException(USAGE);
+      }
+      int eq = arg.indexOf('=');
+      if (!arg.startsWith("--") || eq < 0) {
+        throw new IllegalArgumentException("expected --option=value, got " + arg + "\n" + USAGE);
+      }
+      values.put(arg.substring(2, eq), arg.substring(eq + 1));
+    }
+    LoadTestOptions options =
+        new LoadTestOptions(
+            stripSlash(take(values, "base-url", "http://localhost:8080")),
+            take(values, "token", ""),
+            Mode.valueOf(take(values, "mode", "closed").toUpperCase()),
+            Integer.parseInt(take(values, "users", "50")),
+            Double.parseDouble(take(values, "rate", "100")),
+            Integer.parseInt(take(values, "max-in-flight", "1000")),
+            duration(take(values, "duration", "30s")),
+            duration(take(values, "warmup", "5s")),
+            duration(take(values, "think", "0ms")),
+            Integer.parseInt(take(values, "books", "200")),
+            Integer.parseInt(take(values, "members", "100")),
+            Double.parseDouble(take(values, "zipf", "1.1")),
+            mix(
+                take(
+                    values, "mix", "borrow=30,return=25,reserve=15,cancel=10,books=10,summary=10")),
+            take(values, "prefix", "lt"),
+            Boolean.parseBoolean(take(values, "setup", "true")),
+            Integer.parseInt(take(values, "max-loans", "5")),
+            Long.parseLong(take(values, "seed", "42")));
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("unknown options " + values.keySet() + "\n" + USAGE);
+    }
+    if (options.books < 1 || options.members < 1 || options.users < 1 || options.rate <= 0) {
+      throw new IllegalArgumentException("books, members, users and rate must be positive");
+    }
+    return options;
+  }
+
+  private static String take(Map<String, String> values, String name, String fallback) {
+    String value = values.remove(name);
+    return value == null ? fallback : value;
+  }
+
+  private static String stripSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+
+  /** {@code 250ms}, {@code 30s} or {@code 5m}. */
+  static Duration duration(String text) {
+    if (text.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+    }
+    long amount = Long.parseLong(text.substring(0, text.length() - 1));
+    return switch (text.charAt(text.length() - 1)) {
+      case 's' -> Duration.ofSeconds(amount);
+      case 'm' -> Duration.ofMinutes(amount);
+      default -> throw new IllegalArgumentException("unsupported duration " + text);
+    };
+  }
+
+  private static Map<Operation, Integer> mix(String text) {
+    Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    for (String part : text.split(",")) {
+      String[] pair = part.split("=");
+      mix.put(Operation.byName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+    }
+    return mix;
+  }
+}
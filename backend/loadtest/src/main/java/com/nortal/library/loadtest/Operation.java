@@ -0,0 +1,26 @@
+package com.nortal.library.loadtest;
+
+/** The requests a virtual user sends, by the name {@code --mix} uses for them. */
+enum Operation {
+  BORROW("borrow"),
+  RETURN("return"),
+  RESERVE("reserve"),
+  CANCEL("cancel"),
+  LIST_BOOKS("books"),
+  MEMBER_SUMMARY("summary");
+
+  final String label;
+
+  Operation(String label) {
+    this.label = label;
+  }
+
+  static Operation byName(String label) {
+    for (Operation operation : values()) {
+      if (operation.label.equals(label)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("unknown operation " + label);
+  }
+}
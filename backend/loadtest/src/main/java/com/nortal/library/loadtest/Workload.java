@@ -0,0 +1,202 @@
+package com.nortal.library.loadtest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks and sends one request at a time for a member. Each member remembers the loans and
+ * reservations its own requests produced, so returns and cancellations target something it
+ * plausibly holds; a summary request replaces that memory with the server's view, which also picks
+ * up books handed over from a queue.
+ */
+final class Workload {
+
+  private final LibraryClient client;
+  private final LatencyStats stats;
+  private final ZipfDistribution popularity;
+  private final List<String> bookIds;
+  private final List<Agent> agents;
+  private final Operation[] operations;
+  private final int[] cumulativeWeights;
+
+  Workload(LibraryClient client, LatencyStats stats, LoadTestOptions options) {
+    this.client = client;
+    this.stats = stats;
+    this.popularity = new ZipfDistribution(options.books(), options.zipfExponent());
+    this.bookIds = new ArrayList<>();
+    for (int i = 0; i < options.books(); i++) {
+      bookIds.add(bookId(options.prefix(), i));
+    }
+    this.agents = new ArrayList<>();
+    for (int i = 0; i < options.members(); i++) {
+      agents.add(new Agent(memberId(options.prefix(), i)));
+    }
+    List<Map.Entry<Operation, Integer>> weighted =
+        options.mix().entrySet().stream().filter(e -> e.getValue() > 0).toList();
+    operations = new Operation[weighted.size()];
+    cumulativeWeights = new int[weighted.size()];
+    int total = 0;
+    for (int i = 0; i < weighted.size(); i++) {
+      operations[i] = weighted.get(i).getKey();
+      total += weighted.get(i).getValue();
+      cumulativeWeights[i] = total;
+    }
+  }
+
+  static String bookId(String prefix, int i) {
+    return prefix + "-book-" + i;
+  }
+
+  static String memberId(String prefix, int i) {
+    return prefix + "-member-" + i;
+  }
+
+  List<String> bookIds() {
+    return bookIds;
+  }
+
+  List<Agent> agents() {
+    return agents;
+  }
+
+  Agent agent(int index) {
+    return agents.get(index % agents.size());
+  }
+
+  /**
+   * Sends one request for {@code agent}. Latency is measured from {@code intendedStart}: in open
+   * mode that is the scheduled arrival, so time spent waiting behind a slow server counts.
+   */
+  void runOne(Agent agent, RandomGenerator random, long intendedStart, boolean measured) {
+    Operation operation = pick(random, agent);
+    String outcome;
+    try {
+      outcome = send(operation, agent, random);
+    } catch (LibraryClient.HttpStatusException e) {
+      outcome = "error HTTP " + e.status;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (Exception e) {
+      outcome = "error " + e.getClass().getSimpleName();
+    }
+    if (measured) {
+      stats.record(operation, System.nanoTime() - intendedStart, outcome);
+    }
+  }
+
+  // with nothing to give back or cancel, a member borrows or reserves instead
+  private Operation pick(RandomGenerator random, Agent agent) {
+    int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    Operation operation = operations[operations.length - 1];
+    for (int i = 0; i < operations.length; i++) {
+      if (ticket < cumulativeWeights[i]) {
+        operation = operations[i];
+        break;
+      }
+    }
+    if (operation == Operation.RETURN && agent.loans.isEmpty()) {
+      return Operation.BORROW;
+    }
+    if (operation == Operation.CANCEL && agent.reservations.isEmpty()) {
+      return Operation.RESERVE;
+    }
+    return operation;
+  }
+
+  private String send(Operation operation, Agent agent, RandomGenerator random) throws Exception {
+    String member = agent.memberId;
+    return switch (operation) {
+      case BORROW -> {
+        String book = popularBook(random);
+        LibraryClient.Result result = client.borrow(book, member);
+        if (result.ok()) {
+          agent.loans.add(book);
+        }
+        yield outcome(result.ok(), result.reason());
+      }
+      case RETURN -> {
+        String book = any(agent.loans, random);
+        if (book == null) {
+          yield "rejected NOTHING_HELD";
+        }
+        LibraryClient.ReturnResult result = client.giveBack(book, member);
+        // either way it is no longer ours: returned now, or returned by an earlier request
+        agent.loans.remove(book);
+        yield outcome(result.ok(), "NOT_HOLDER");
+      }
+      case RESERVE -> {
+        String book = popularBook(random);
+        LibraryClient.Result result = client.reserve(book, member);
+        if (result.ok()) {
+          // an available book is borrowed straight away; the next summary sorts out which
+          agent.reservations.add(book);
+        }
+        yield outcome(result.ok(), result.reason());
+      }
+      case CANCEL -> {
+        String book = any(agent.reservations, random);
+        if (book == null) {
+          yield "rejected NOTHING_HELD";
+        }
+        LibraryClient.Result result = client.cancel(book, member);
+        agent.reservations.remove(book);
+        yield outcome(result.ok(), result.reason());
+      }
+      case LIST_BOOKS -> {
+        client.books();
+        yield "ok";
+      }
+      case MEMBER_SUMMARY -> {
+        LibraryClient.Summary summary = client.summary(member);
+        if (summary.ok()) {
+          agent.replace(summary);
+        }
+        yield outcome(summary.ok(), summary.reason());
+      }
+    };
+  }
+
+  private String popularBook(RandomGenerator random) {
+    return bookIds.get(popularity.sample(random));
+  }
+
+  private static String outcome(boolean ok, String reason) {
+    return ok ? "ok" : "rejected " + (reason == null ? "NONE" : reason);
+  }
+
+  private static String any(Set<String> ids, RandomGenerator random) {
+    int size = ids.size();
+    if (size == 0) {
+      return null;
+    }
+    Iterator<String> it = ids.iterator();
+    for (int skip = random.nextInt(size); skip > 0 && it.hasNext(); skip--) {
+      it.next();
+    }
+    return it.hasNext() ? it.next() : null;
+  }
+
+  /** A member and what its own requests suggest it currently holds and waits for. */
+  static final class Agent {
+    final String memberId;
+    final Set<String> loans = ConcurrentHashMap.newKeySet();
+    final Set<String> reservations = ConcurrentHashMap.newKeySet();
+
+    Agent(String memberId) {
+      this.memberId = memberId;
+    }
+
+    void replace(LibraryClient.Summary summary) {
+      loans.clear();
+      summary.loans().forEach(loan -> loans.add(loan.bookId()));
+      reservations.clear();
+      summary.reservations().forEach(reservation -> reservations.add(reservation.bookId()));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.nortal.library.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ranks {@code 0..n-1} drawn with probability proportional to {@code 1 / (rank + 1)^exponent}, so a
+ * few books take most of the traffic. Exponent 0 is uniform.
+ */
+final class ZipfDistribution {
+
+  private final double[] cumulative;
+
+  ZipfDistribution(int n, double exponent) {
+    cumulative = new double[n];
+    double total = 0;
+    for (int rank = 0; rank < n; rank++) {
+      total += 1 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = total;
+    }
+    for (int rank = 0; rank < n; rank++) {
+      cumulative[rank] /= total;
+    }
+  }
+
+  int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+
+  /** Share of all draws that land on {@code rank}. */
+  double probability(int rank) {
+    return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+  }
+}
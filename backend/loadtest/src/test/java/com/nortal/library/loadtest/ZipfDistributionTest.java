@@ -0,0 +1,73 @@
+package com.nortal.library.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class ZipfDistributionTest {
+
+  @Test
+  void probabilitiesFallWithRankAndSumToOne() {
+    ZipfDistribution zipf = new ZipfDistribution(100, 1.1);
+
+    double total = 0;
+    for (int rank = 0; rank < 100; rank++) {
+      total += zipf.probability(rank);
+      if (rank > 0) {
+        assertTrue(zipf.probability(rank) < zipf.probability(rank - 1));
+      }
+    }
+    assertEquals(1, total, 1e-9);
+    // 1 / 2^1.1 of the head's share
+    assertEquals(Math.pow(2, -1.1), zipf.probability(1) / zipf.probability(0), 1e-9);
+  }
+
+  @Test
+  void exponentZeroIsUniform() {
+    ZipfDistribution zipf = new ZipfDistribution(8, 0);
+
+    for (int rank = 0; rank < 8; rank++) {
+      assertEquals(1 / 8.0, zipf.probability(rank), 1e-12);
+    }
+  }
+
+  @Test
+  void samplesFollowTheProbabilities() {
+    ZipfDistribution zipf = new ZipfDistribution(50, 1.0);
+    RandomGenerator random = new Random(42);
+    int draws = 200_000;
+    int[] counts = new int[50];
+    for (int i = 0; i < draws; i++) {
+      counts[zipf.sample(random)]++;
+    }
+
+    for (int rank : new int[] {0, 1, 9, 49}) {
+      assertEquals(zipf.probability(rank), counts[rank] / (double) draws, 0.005);
+    }
+  }
+
+  @Test
+  void samplesStayInRangeAtTheEdges() {
+    ZipfDistribution zipf = new ZipfDistribution(10, 1.0);
+
+    assertEquals(0, zipf.sample(fixed(0.0)));
+    assertEquals(9, zipf.sample(fixed(Math.nextDown(1.0))));
+  }
+
+  private static RandomGenerator fixed(double value) {
+    return new RandomGenerator() {
+      @Override
+      public long nextLong() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public double nextDouble() {
+        return value;
+      }
+    };
+  }
+}
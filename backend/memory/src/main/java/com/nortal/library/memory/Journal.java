@@ -0,0 +1,300 @@
+package com.nortal.library.memory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only record file with group commit. Committers append their records to a shared buffer and
+ * wait; a single flusher thread writes whatever has accumulated and fsyncs once for all of them.
+ * Each record is framed as {@code length, payload, crc32}, so a write torn by a crash is detected
+ * on replay and cut off.
+ *
+ * <p>Committers wait on a {@link ReentrantLock} condition rather than a monitor: a virtual thread
+ * parked in {@code Object.wait} keeps its carrier pinned for the whole flush.
+ */
+final class Journal implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(Journal.class);
+
+  private final Path path;
+  private final boolean fsync;
+  private final ReentrantLock lock = new ReentrantLock();
+  // signalled when records are appended or the journal closes
+  private final Condition appended = lock.newCondition();
+  // signalled when a flush completes or fails
+  private final Condition flushed = lock.newCondition();
+  private FileChannel channel;
+  private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+  private long appendedTicket;
+  private long durableTicket;
+  private IOException failure;
+  private boolean closed;
+  private Thread flusher;
+
+  Journal(Path path, boolean fsync) {
+    this.path = path;
+    this.fsync = fsync;
+  }
+
+  /**
+   * Feeds every intact record to {@code handler} in write order and cuts off a torn tail. Must run
+   * before {@link #open}.
+   */
+  void replay(Consumer<byte[]> handler) throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    long intact = 0;
+    long records = 0;
+    try (InputStream file = Files.newInputStream(path);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+      while (true) {
+        byte[] payload;
+        try {
+          int length = in.readInt();
+          if (length < 0) {
+            break;
+          }
+          payload = in.readNBytes(length);
+          if (payload.length < length || in.readInt() != crc(payload)) {
+            break;
+          }
+        } catch (EOFException e) {
+          break;
+        }
+        handler.accept(payload);
+        intact += Integer.BYTES * 2L + payload.length;
+        records++;
+      }
+    }
+    long size = Files.size(path);
+    if (intact < size) {
+      log.warn("Journal {} ends in {} unreadable bytes, truncating", path, size - intact);
+      try (FileChannel truncate = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        truncate.truncate(intact);
+        truncate.force(true);
+      }
+    }
+    log.info("Replayed {} journal records from {}", records, path);
+  }
+
+  /**
+   * Replaces the journal with {@code snapshot}, which should restate the current state, so the file
+   * stays proportional to the data rather than to its history. Must run before {@link #open}.
+   */
+  void compact(Consumer<Consumer<byte[]>> snapshot) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".compact");
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+      snapshot.accept(
+          record -> {
+            frame(buffer, record);
+            if (buffer.size() >= 1 << 16) {
+              drain(buffer, out);
+            }
+          });
+      drain(buffer, out);
+      out.force(true);
+    } catch (UncheckedIOException e) {
+      Files.deleteIfExists(tmp);
+      throw e.getCause();
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    // the rename is only durable once the directory entry is
+    forceDirectory(parent);
+  }
+
+  private static void forceDirectory(Path directory) throws IOException {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(directory, StandardOpenOption.READ);
+    } catch (IOException e) {
+      // Windows cannot open a directory; its renames are journaled by NTFS instead
+      log.debug("Cannot open {} to fsync it", directory, e);
+      return;
+    }
+    try (channel) {
+      channel.force(true);
+    }
+  }
+
+  void open() throws IOException {
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    flusher = new Thread(this::flushLoop, "library-journal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /** Queues the records for the next flush and returns the ticket to wait on. */
+  long append(List<byte[]> records) {
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("journal is closed");
+      }
+      if (failure != null) {
+        throw new UncheckedIOException("journal write failed", failure);
+      }
+      for (byte[] record : records) {
+        frame(pending, record);
+      }
+      appended.signal();
+      return ++appendedTicket;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Blocks until everything up to {@code ticket} is on disk. */
+  void awaitDurable(long ticket) {
+    lock.lock();
+    try {
+      while (durableTicket < ticket && failure == null) {
+        try {
+          flushed.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("interrupted while waiting for the journal", e);
+        }
+      }
+      if (durableTicket < ticket) {
+        throw new UncheckedIOException("journal write failed", failure);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** The last ticket known to be on disk. Once a flush has failed it no longer moves. */
+  long durableTicket() {
+    lock.lock();
+    try {
+      return durableTicket;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void flushLoop() {
+    while (true) {
+      ByteArrayOutputStream batch;
+      long ticket;
+      lock.lock();
+      try {
+        while (pending.size() == 0 && !closed) {
+          try {
+            appended.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (pending.size() == 0) {
+          return;
+        }
+        batch = pending;
+        ticket = appendedTicket;
+        pending = new ByteArrayOutputStream(Math.max(256, batch.size()));
+      } finally {
+        lock.unlock();
+      }
+      try {
+        drain(batch, channel);
+        if (fsync) {
+          channel.force(false);
+        }
+      } catch (IOException | UncheckedIOException e) {
+        lock.lock();
+        try {
+          failure = e instanceof UncheckedIOException u ? u.getCause() : (IOException) e;
+          flushed.signalAll();
+        } finally {
+          lock.unlock();
+        }
+        log.error("Journal {} write failed; further commits will fail", path, failure);
+        return;
+      }
+      lock.lock();
+      try {
+        durableTicket = ticket;
+        flushed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      closed = true;
+      appended.signal();
+    } finally {
+      lock.unlock();
+    }
+    if (flusher != null) {
+      try {
+        flusher.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  private static void frame(ByteArrayOutputStream out, byte[] record) {
+    writeInt(out, record.length);
+    out.writeBytes(record);
+    writeInt(out, crc(record));
+  }
+
+  private static void writeInt(ByteArrayOutputStream out, int value) {
+    out.write(value >>> 24);
+    out.write(value >>> 16);
+    out.write(value >>> 8);
+    out.write(value);
+  }
+
+  private static int crc(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return (int) crc.getValue();
+  }
+
+  private static void drain(ByteArrayOutputStream buffer, FileChannel out) {
+    try {
+      ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+      while (bytes.hasRemaining()) {
+        out.write(bytes);
+      }
+      buffer.reset();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
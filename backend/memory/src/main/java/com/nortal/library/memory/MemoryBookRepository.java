@@ -0,0 +1,243 @@
+package com.nortal.library.memory;
+
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookTitle;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.domain.CirculationStats;
+import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberReservation;
+import com.nortal.library.core.domain.QueueCandidate;
+import com.nortal.library.core.index.DueDateIndex;
+import com.nortal.library.core.port.BookRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/** {@link BookRepository} over a {@link MemoryStore}; every book handed out is a copy. */
+public class MemoryBookRepository implements BookRepository {
+
+  private final MemoryStore store;
+
+  public MemoryBookRepository(MemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public Optional<Book> findById(String id) {
+    return Optional.ofNullable(store.books.get(id)).map(MemoryStore::copy);
+  }
+
+  @Override
+  public List<BookView> findAll() {
+    return store.books.values().stream().map(MemoryBookRepository::view).toList();
+  }
+
+  @Override
+  public void streamAll(Consumer<Book> consumer) {
+    store.books.values().forEach(book -> consumer.accept(MemoryStore.copy(book)));
+  }
+
+  @Override
+  public List<Book> findAllById(Collection<String> ids) {
+    List<Book> found = new ArrayList<>();
+    for (String id : ids) {
+      Book book = store.books.get(id);
+      if (book != null) {
+        found.add(MemoryStore.copy(book));
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public List<BookView> findViewsById(Collection<String> ids) {
+    List<BookView> found = new ArrayList<>();
+    for (String id : ids) {
+      Book book = store.books.get(id);
+      if (book != null) {
+        found.add(view(book));
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public List<BookView> findPageAfter(String afterId, int limit) {
+    Collection<Book> rest =
+        afterId == null ? store.books.values() : store.books.tailMap(afterId, false).values();
+    return rest.stream().limit(limit).map(MemoryBookRepository::view).toList();
+  }
+
+  @Override
+  public List<BookTitle> findTitlesById(Collection<String> ids) {
+    List<BookTitle> titles = new ArrayList<>();
+    for (String id : ids) {
+      Book book = store.books.get(id);
+      if (book != null) {
+        titles.add(new BookTitle(book.getId(), book.getTitle()));
+      }
+    }
+    return titles;
+  }
+
+  @Override
+  public Book save(Book book) {
+    return store.putBook(book);
+  }
+
+  @Override
+  public void insertAll(List<Book> books) {
+    books.forEach(store::putBook);
+  }
+
+  @Override
+  public void delete(Book book) {
+    store.deleteBook(book.getId());
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return store.books.containsKey(id);
+  }
+
+  @Override
+  public long countByLoanedTo(String memberId) {
+    NavigableSet<String> held = store.booksByHolder.get(memberId);
+    return held == null ? 0 : held.size();
+  }
+
+  @Override
+  public List<Book> findByLoanedTo(String memberId) {
+    NavigableSet<String> held = store.booksByHolder.get(memberId);
+    return held == null ? List.of() : findAllById(held);
+  }
+
+  @Override
+  public List<MemberReservation> findReservationsByMember(String memberId) {
+    Set<String> queued = store.queuedBooksByMember.get(memberId);
+    if (queued == null) {
+      return List.of();
+    }
+    List<MemberReservation> reservations = new ArrayList<>();
+    for (String bookId : new TreeSet<>(queued)) {
+      MemoryStore.Queue queue = store.queues.get(bookId);
+      long position = queue == null ? -1 : queue.position(memberId);
+      if (position >= 0) {
+        reservations.add(new MemberReservation(bookId, position));
+      }
+    }
+    return reservations;
+  }
+
+  @Override
+  public Optional<String> findQueueHead(String bookId) {
+    MemoryStore.Queue queue = store.queues.get(bookId);
+    if (queue == null) {
+      return Optional.empty();
+    }
+    Map.Entry<Long, String> head = queue.bySeq.firstEntry();
+    return head == null ? Optional.empty() : Optional.of(head.getValue());
+  }
+
+  @Override
+  public boolean isQueued(String bookId, String memberId) {
+    MemoryStore.Queue queue = store.queues.get(bookId);
+    return queue != null && queue.seqOf.containsKey(memberId);
+  }
+
+  @Override
+  public void enqueue(String bookId, String memberId) {
+    store.enqueue(bookId, memberId);
+  }
+
+  @Override
+  public void enqueueAll(Map<String, List<String>> queues) {
+    queues.forEach((bookId, memberIds) -> memberIds.forEach(m -> store.enqueue(bookId, m)));
+  }
+
+  @Override
+  public boolean dequeue(String bookId, String memberId) {
+    return store.dequeue(bookId, List.of(memberId)) > 0;
+  }
+
+  @Override
+  public void clearQueue(String bookId) {
+    MemoryStore.Queue queue = store.queues.get(bookId);
+    if (queue != null) {
+      store.dequeue(bookId, List.copyOf(queue.bySeq.values()));
+    }
+  }
+
+  @Override
+  public List<QueueCandidate> findQueueCandidates(String bookId) {
+    MemoryStore.Queue queue = store.queues.get(bookId);
+    if (queue == null) {
+      return List.of();
+    }
+    List<QueueCandidate> candidates = new ArrayList<>();
+    for (String memberId : queue.bySeq.values()) {
+      Member member = store.members.get(memberId);
+      int activeLoans = member == null ? 0 : member.getActiveLoans();
+      candidates.add(new QueueCandidate(memberId, member != null, activeLoans));
+    }
+    return candidates;
+  }
+
+  @Override
+  public void dequeueAll(String bookId, Collection<String> memberIds) {
+    store.dequeue(bookId, memberIds);
+  }
+
+  @Override
+  public Map<String, List<String>> findQueues(Collection<String> bookIds) {
+    Map<String, List<String>> result = new HashMap<>();
+    for (String bookId : bookIds) {
+      MemoryStore.Queue queue = store.queues.get(bookId);
+      if (queue != null && !queue.bySeq.isEmpty()) {
+        result.put(bookId, List.copyOf(queue.bySeq.values()));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<BookView> findLoansDueBefore(
+      LocalDate date, LocalDate afterDueDate, String afterId, int limit) {
+    List<BookView> loans = new ArrayList<>();
+    for (DueDateIndex.Entry entry : store.dueDates.dueBefore(date, afterDueDate, afterId, limit)) {
+      Book book = store.books.get(entry.bookId());
+      if (book != null) {
+        loans.add(view(book));
+      }
+    }
+    return loans;
+  }
+
+  @Override
+  public CirculationStats circulationStats() {
+    long loans = 0;
+    for (NavigableSet<String> held : store.booksByHolder.values()) {
+      loans += held.size();
+    }
+    long queued = 0;
+    long longest = 0;
+    for (MemoryStore.Queue queue : store.queues.values()) {
+      int size = queue.seqOf.size();
+      queued += size;
+      longest = Math.max(longest, size);
+    }
+    return new CirculationStats(loans, queued, longest);
+  }
+
+  private static BookView view(Book book) {
+    return new BookView(book.getId(), book.getTitle(), book.getLoanedTo(), book.getDueDate());
+  }
+}
@@ -0,0 +1,94 @@
+package com.nortal.library.memory;
+
+import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
+import com.nortal.library.core.port.MemberRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/** {@link MemberRepository} over a {@link MemoryStore}; every member handed out is a copy. */
+public class MemoryMemberRepository implements MemberRepository {
+
+  private final MemoryStore store;
+
+  public MemoryMemberRepository(MemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public Optional<Member> findById(String id) {
+    return Optional.ofNullable(store.members.get(id)).map(MemoryStore::copy);
+  }
+
+  @Override
+  public List<MemberView> findAll() {
+    return store.members.values().stream().map(MemoryMemberRepository::view).toList();
+  }
+
+  @Override
+  public List<Member> findAllById(Collection<String> ids) {
+    List<Member> found = new ArrayList<>();
+    for (String id : ids) {
+      Member member = store.members.get(id);
+      if (member != null) {
+        found.add(MemoryStore.copy(member));
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public void streamAll(Consumer<Member> consumer) {
+    store.members.values().forEach(member -> consumer.accept(MemoryStore.copy(member)));
+  }
+
+  @Override
+  public List<MemberView> findPageAfter(String afterId, int limit) {
+    Collection<Member> rest =
+        afterId == null ? store.members.values() : store.members.tailMap(afterId, false).values();
+    return rest.stream().limit(limit).map(MemoryMemberRepository::view).toList();
+  }
+
+  @Override
+  public Member save(Member member) {
+    return store.putMember(member);
+  }
+
+  @Override
+  public void insertAll(List<Member> members) {
+    members.forEach(store::putMember);
+  }
+
+  @Override
+  public void delete(Member member) {
+    store.deleteMember(member.getId());
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return store.members.containsKey(id);
+  }
+
+  @Override
+  public int activeLoanCount(String memberId) {
+    Member member = store.members.get(memberId);
+    return member == null ? 0 : member.getActiveLoans();
+  }
+
+  @Override
+  public void adjustActiveLoans(String memberId, int delta) {
+    store.adjustActiveLoans(memberId, delta);
+  }
+
+  @Override
+  public int reconcileActiveLoans() {
+    return store.reconcileActiveLoans();
+  }
+
+  private static MemberView view(Member member) {
+    return new MemberView(member.getId(), member.getName());
+  }
+}
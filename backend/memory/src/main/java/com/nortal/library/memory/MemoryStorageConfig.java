@@ -0,0 +1,38 @@
+package com.nortal.library.memory;
+
+import com.nortal.library.core.port.BookRepository;
+import com.nortal.library.core.port.MemberRepository;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/** Storage without a database, selected with the {@code memory} profile. */
+@Configuration
+@Profile("memory")
+public class MemoryStorageConfig {
+
+  @Bean(destroyMethod = "close")
+  MemoryStore memoryStore(
+      @Value("${library.memory.journal-path:./data/library.journal}") String journalPath,
+      @Value("${library.memory.fsync:true}") boolean fsync) {
+    return new MemoryStore(Path.of(journalPath), fsync);
+  }
+
+  @Bean
+  BookRepository memoryBookRepository(MemoryStore store) {
+    return new MemoryBookRepository(store);
+  }
+
+  @Bean
+  MemberRepository memoryMemberRepository(MemoryStore store) {
+    return new MemoryMemberRepository(store);
+  }
+
+  @Bean
+  PlatformTransactionManager transactionManager(MemoryStore store) {
+    return new MemoryTransactionManager(store);
+  }
+}
@@ -0,0 +1,533 @@
+package com.nortal.library.memory;
+
+import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.index.DueDateIndex;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Books, members and reservation queues on concurrent maps, with the secondary indexes the
+ * repositories need, made durable by a {@link Journal}.
+ *
+ * <p>Writers are serialized: a write transaction holds the store lock from begin to commit and
+ * keeps an undo entry and a journal record per change. Commit hands the records to the journal,
+ * releases the lock and only then waits for the fsync, so one slow disk flush covers every
+ * transaction that committed meanwhile. Readers never lock; they may observe a write transaction's
+ * changes before it commits.
+ *
+ * <p>A transaction's undo entries are kept until its records are on disk. If the journal fails, the
+ * transactions it did not make durable are undone newest first, so memory never holds a change a
+ * restart would lose.
+ */
+public class MemoryStore implements Closeable {
+
+  private static final byte BOOK = 1;
+  private static final byte BOOK_DELETED = 2;
+  private static final byte MEMBER = 3;
+  private static final byte MEMBER_DELETED = 4;
+  private static final byte ENQUEUED = 5;
+  private static final byte DEQUEUED = 6;
+
+  final NavigableMap<String, Book> books = new ConcurrentSkipListMap<>();
+  final NavigableMap<String, Member> members = new ConcurrentSkipListMap<>();
+  final Map<String, NavigableSet<String>> booksByHolder = new ConcurrentHashMap<>();
+  final DueDateIndex dueDates = new DueDateIndex();
+  final Map<String, Queue> queues = new ConcurrentHashMap<>();
+  final Map<String, Set<String>> queuedBooksByMember = new ConcurrentHashMap<>();
+
+  private final AtomicLong nextSeq = new AtomicLong(1);
+  private final ReentrantLock writeLock = new ReentrantLock(true);
+  private final Journal journal;
+  // undo entries of the committed transactions not yet on disk, by journal ticket
+  private final NavigableMap<Long, Deque<Runnable>> notDurable = new ConcurrentSkipListMap<>();
+
+  /** Opens the journal at {@code path}, replays it into memory and compacts it. */
+  public MemoryStore(Path path, boolean fsync) {
+    journal = new Journal(path, fsync);
+    try {
+      journal.replay(this::apply);
+      journal.compact(this::snapshot);
+      journal.open();
+    } catch (IOException e) {
+      throw new UncheckedIOException("cannot open journal " + path, e);
+    }
+  }
+
+  // ---- transactions
+
+  MemoryTransaction begin(boolean readOnly) {
+    MemoryTransaction tx = new MemoryTransaction(readOnly);
+    if (!readOnly) {
+      writeLock.lock();
+    }
+    return tx;
+  }
+
+  void commit(MemoryTransaction tx) {
+    if (tx.readOnly) {
+      return;
+    }
+    long ticket = 0;
+    try {
+      if (!tx.records.isEmpty()) {
+        ticket = journal.append(tx.records);
+        notDurable.put(ticket, tx.undo);
+      }
+    } catch (RuntimeException e) {
+      undo(tx.undo);
+      throw e;
+    } finally {
+      writeLock.unlock();
+    }
+    if (ticket > 0) {
+      try {
+        journal.awaitDurable(ticket);
+      } catch (UncheckedIOException e) {
+        // an interrupted wait is not a failure: the records may still reach the disk
+        undoNotDurable();
+        throw e;
+      }
+      notDurable.headMap(ticket, true).clear();
+    }
+  }
+
+  void rollback(MemoryTransaction tx) {
+    // a commit that failed has already undone the transaction and released the lock
+    if (tx.readOnly || !writeLock.isHeldByCurrentThread()) {
+      return;
+    }
+    try {
+      undo(tx.undo);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  // the journal has failed: everything after its last durable ticket is rolled back, newest first,
+  // by whichever failed committer gets here first
+  private void undoNotDurable() {
+    writeLock.lock();
+    try {
+      notDurable.headMap(journal.durableTicket(), true).clear();
+      for (Map.Entry<Long, Deque<Runnable>> last; (last = notDurable.pollLastEntry()) != null; ) {
+        undo(last.getValue());
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private static void undo(Deque<Runnable> undo) {
+    while (!undo.isEmpty()) {
+      undo.pop().run();
+    }
+  }
+
+  private MemoryTransaction current() {
+    return (MemoryTransaction) TransactionSynchronizationManager.getResource(this);
+  }
+
+  /** Runs a change in the caller's transaction, or in one of its own when there is none. */
+  private <T> T write(Change<T> change) {
+    MemoryTransaction tx = current();
+    if (tx != null) {
+      if (tx.readOnly) {
+        throw new IllegalStateException("write inside a read-only transaction");
+      }
+      return change.apply(tx);
+    }
+    MemoryTransaction own = begin(false);
+    T result;
+    try {
+      result = change.apply(own);
+    } catch (RuntimeException e) {
+      rollback(own);
+      throw e;
+    }
+    commit(own);
+    return result;
+  }
+
+  // ---- writes
+
+  /** Stores a copy of the book; a stale version means someone else saved it in between. */
+  Book putBook(Book book) {
+    return write(
+        tx -> {
+          Book previous = books.get(book.getId());
+          if (previous != null
+              && book.getVersion() != null
+              && !book.getVersion().equals(previous.getVersion())) {
+            throw new OptimisticLockingFailureException("book " + book.getId() + " was modified");
+          }
+          Book row = copy(book);
+          row.setVersion(previous == null ? 0L : previous.getVersion() + 1);
+          setBook(row);
+          book.setVersion(row.getVersion());
+          tx.undo.push(() -> restoreBook(row.getId(), previous));
+          tx.records.add(bookRecord(row));
+          return copy(row);
+        });
+  }
+
+  void deleteBook(String id) {
+    write(
+        tx -> {
+          Book previous = removeBook(id);
+          if (previous != null) {
+            tx.undo.push(() -> setBook(previous));
+            tx.records.add(record(BOOK_DELETED, out -> out.writeUTF(id)));
+          }
+          return null;
+        });
+  }
+
+  Member putMember(Member member) {
+    return write(
+        tx -> {
+          Member previous = members.get(member.getId());
+          Member row = copy(member);
+          // like the active_loans column, the counter is only ever moved by adjustActiveLoans
+          if (previous != null) {
+            row.setActiveLoans(previous.getActiveLoans());
+          }
+          members.put(row.getId(), row);
+          tx.undo.push(() -> restoreMember(row.getId(), previous));
+          tx.records.add(memberRecord(row));
+          return copy(row);
+        });
+  }
+
+  void deleteMember(String id) {
+    write(
+        tx -> {
+          Member previous = members.remove(id);
+          if (previous != null) {
+            tx.undo.push(() -> members.put(id, previous));
+            tx.records.add(record(MEMBER_DELETED, out -> out.writeUTF(id)));
+          }
+          return null;
+        });
+  }
+
+  void adjustActiveLoans(String memberId, int delta) {
+    write(
+        tx -> {
+          Member previous = members.get(memberId);
+          if (previous != null) {
+            Member row = copy(previous);
+            row.setActiveLoans(previous.getActiveLoans() + delta);
+            members.put(memberId, row);
+            tx.undo.push(() -> members.put(memberId, previous));
+            tx.records.add(memberRecord(row));
+          }
+          return null;
+        });
+  }
+
+  /** Sets every member's counter to the number of books they hold; returns how many changed. */
+  int reconcileActiveLoans() {
+    return write(
+        tx -> {
+          int drifted = 0;
+          for (Member member : members.values()) {
+            NavigableSet<String> held = booksByHolder.get(member.getId());
+            int actual = held == null ? 0 : held.size();
+            if (member.getActiveLoans() != actual) {
+              Member row = copy(member);
+              row.setActiveLoans(actual);
+              members.put(row.getId(), row);
+              tx.undo.push(() -> members.put(member.getId(), member));
+              tx.records.add(memberRecord(row));
+              drifted++;
+            }
+          }
+          return drifted;
+        });
+  }
+
+  void enqueue(String bookId, String memberId) {
+    write(
+        tx -> {
+          long seq = nextSeq.getAndIncrement();
+          if (!addToQueue(bookId, memberId, seq)) {
+            throw new IllegalStateException(memberId + " is already queued for " + bookId);
+          }
+          tx.undo.push(() -> removeFromQueue(bookId, memberId));
+          tx.records.add(enqueuedRecord(bookId, memberId, seq));
+          return null;
+        });
+  }
+
+  /** Removes the given members from the book's queue; returns how many were in it. */
+  int dequeue(String bookId, Iterable<String> memberIds) {
+    return write(
+        tx -> {
+          int removed = 0;
+          for (String memberId : memberIds) {
+            Long seq = removeFromQueue(bookId, memberId);
+            if (seq != null) {
+              tx.undo.push(() -> addToQueue(bookId, memberId, seq));
+              tx.records.add(
+                  record(
+                      DEQUEUED,
+                      out -> {
+                        out.writeUTF(bookId);
+                        out.writeUTF(memberId);
+                      }));
+              removed++;
+            }
+          }
+          return removed;
+        });
+  }
+
+  // ---- index maintenance, shared by writes, undo and replay
+
+  private void setBook(Book row) {
+    Book previous = books.put(row.getId(), row);
+    unindexHolder(previous);
+    if (row.getLoanedTo() != null) {
+      booksByHolder
+          .computeIfAbsent(row.getLoanedTo(), id -> new ConcurrentSkipListSet<>())
+          .add(row.getId());
+    }
+    dueDates.put(row.getId(), row.getLoanedTo() == null ? null : row.getDueDate());
+  }
+
+  private Book removeBook(String id) {
+    Book previous = books.remove(id);
+    unindexHolder(previous);
+    dueDates.remove(id);
+    return previous;
+  }
+
+  private void restoreBook(String id, Book previous) {
+    if (previous == null) {
+      removeBook(id);
+    } else {
+      setBook(previous);
+    }
+  }
+
+  private void restoreMember(String id, Member previous) {
+    if (previous == null) {
+      members.remove(id);
+    } else {
+      members.put(id, previous);
+    }
+  }
+
+  private void unindexHolder(Book previous) {
+    if (previous != null && previous.getLoanedTo() != null) {
+      NavigableSet<String> held = booksByHolder.get(previous.getLoanedTo());
+      if (held != null) {
+        held.remove(previous.getId());
+      }
+    }
+  }
+
+  private boolean addToQueue(String bookId, String memberId, long seq) {
+    Queue queue = queues.computeIfAbsent(bookId, id -> new Queue());
+    if (queue.seqOf.putIfAbsent(memberId, seq) != null) {
+      return false;
+    }
+    queue.bySeq.put(seq, memberId);
+    queuedBooksByMember.computeIfAbsent(memberId, id -> ConcurrentHashMap.newKeySet()).add(bookId);
+    nextSeq.accumulateAndGet(seq + 1, Math::max);
+    return true;
+  }
+
+  private Long removeFromQueue(String bookId, String memberId) {
+    Queue queue = queues.get(bookId);
+    Long seq = queue == null ? null : queue.seqOf.remove(memberId);
+    if (seq == null) {
+      return null;
+    }
+    queue.bySeq.remove(seq);
+    Set<String> queued = queuedBooksByMember.get(memberId);
+    if (queued != null) {
+      queued.remove(bookId);
+    }
+    return seq;
+  }
+
+  // ---- journal records
+
+  private void apply(byte[] payload) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      switch (in.readByte()) {
+        case BOOK -> {
+          Book book = new Book(in.readUTF(), in.readUTF());
+          book.setLoanedTo(readNullable(in));
+          long dueDate = in.readLong();
+          book.setDueDate(dueDate == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(dueDate));
+          book.setVersion(in.readLong());
+          setBook(book);
+        }
+        case BOOK_DELETED -> removeBook(in.readUTF());
+        case MEMBER -> {
+          Member member = new Member(in.readUTF(), in.readUTF());
+          member.setActiveLoans(in.readInt());
+          members.put(member.getId(), member);
+        }
+        case MEMBER_DELETED -> members.remove(in.readUTF());
+        case ENQUEUED -> addToQueue(in.readUTF(), in.readUTF(), in.readLong());
+        case DEQUEUED -> removeFromQueue(in.readUTF(), in.readUTF());
+        default -> throw new IOException("unknown journal record type");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void snapshot(Consumer<byte[]> out) {
+    members.values().forEach(member -> out.accept(memberRecord(member)));
+    books.values().forEach(book -> out.accept(bookRecord(book)));
+    List<QueueEntry> entries = new ArrayList<>();
+    queues.forEach(
+        (bookId, queue) ->
+            queue.bySeq.forEach(
+                (seq, memberId) -> entries.add(new QueueEntry(seq, bookId, memberId))));
+    entries.sort(Comparator.comparingLong(QueueEntry::seq));
+    for (QueueEntry entry : entries) {
+      out.accept(enqueuedRecord(entry.bookId(), entry.memberId(), entry.seq()));
+    }
+  }
+
+  private static byte[] enqueuedRecord(String bookId, String memberId, long seq) {
+    return record(
+        ENQUEUED,
+        out -> {
+          out.writeUTF(bookId);
+          out.writeUTF(memberId);
+          out.writeLong(seq);
+        });
+  }
+
+  private static byte[] bookRecord(Book book) {
+    return record(
+        BOOK,
+        out -> {
+          out.writeUTF(book.getId());
+          out.writeUTF(book.getTitle());
+          writeNullable(out, book.getLoanedTo());
+          out.writeLong(
+              book.getDueDate() == null ? Long.MIN_VALUE : book.getDueDate().toEpochDay());
+          out.writeLong(book.getVersion() == null ? 0 : book.getVersion());
+        });
+  }
+
+  private static byte[] memberRecord(Member member) {
+    return record(
+        MEMBER,
+        out -> {
+          out.writeUTF(member.getId());
+          out.writeUTF(member.getName());
+          out.writeInt(member.getActiveLoans());
+        });
+  }
+
+  private static byte[] record(byte type, RecordWriter writer) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(type);
+      writer.write(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeNullable(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  // ---- copies, so callers never share the stored rows
+
+  static Book copy(Book book) {
+    Book copy = new Book(book.getId(), book.getTitle());
+    copy.setLoanedTo(book.getLoanedTo());
+    copy.setDueDate(book.getDueDate());
+    copy.setVersion(book.getVersion());
+    return copy;
+  }
+
+  static Member copy(Member member) {
+    Member copy = new Member(member.getId(), member.getName());
+    copy.setActiveLoans(member.getActiveLoans());
+    return copy;
+  }
+
+  @Override
+  public void close() throws IOException {
+    journal.close();
+  }
+
+  /** One book's waiting members, ordered by the sequence number they joined with. */
+  static final class Queue {
+    final NavigableMap<Long, String> bySeq = new ConcurrentSkipListMap<>();
+    final Map<String, Long> seqOf = new ConcurrentHashMap<>();
+
+    /** Number of members ahead of {@code memberId}. */
+    long position(String memberId) {
+      Long seq = seqOf.get(memberId);
+      return seq == null ? -1 : bySeq.headMap(seq).size();
+    }
+  }
+
+  private record QueueEntry(long seq, String bookId, String memberId) {}
+
+  static final class MemoryTransaction {
+    final boolean readOnly;
+    final Deque<Runnable> undo = new ArrayDeque<>();
+    final List<byte[]> records = new ArrayList<>();
+    boolean rollbackOnly;
+
+    MemoryTransaction(boolean readOnly) {
+      this.readOnly = readOnly;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Change<T> {
+    T apply(MemoryTransaction tx);
+  }
+
+  @FunctionalInterface
+  private interface RecordWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+}
@@ -0,0 +1,85 @@
+package com.nortal.library.memory;
+
+import com.nortal.library.memory.MemoryStore.MemoryTransaction;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transactions for {@link MemoryStore}: commit journals the changes, rollback undoes them. Bound to
+ * the thread the same way a JDBC connection is, so the store's writes find their transaction.
+ */
+public class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+  private final MemoryStore store;
+
+  public MemoryTransactionManager(MemoryStore store) {
+    this.store = store;
+  }
+
+  @Override
+  protected Object doGetTransaction() {
+    return new Handle((MemoryTransaction) TransactionSynchronizationManager.getResource(store));
+  }
+
+  @Override
+  protected boolean isExistingTransaction(Object transaction) {
+    return ((Handle) transaction).tx != null;
+  }
+
+  @Override
+  protected void doBegin(Object transaction, TransactionDefinition definition) {
+    MemoryTransaction tx = store.begin(definition.isReadOnly());
+    ((Handle) transaction).tx = tx;
+    TransactionSynchronizationManager.bindResource(store, tx);
+  }
+
+  @Override
+  protected Object doSuspend(Object transaction) {
+    ((Handle) transaction).tx = null;
+    return TransactionSynchronizationManager.unbindResource(store);
+  }
+
+  @Override
+  protected void doResume(Object transaction, Object suspendedResources) {
+    TransactionSynchronizationManager.bindResource(store, suspendedResources);
+  }
+
+  @Override
+  protected void doCommit(DefaultTransactionStatus status) {
+    store.commit(((Handle) status.getTransaction()).tx);
+  }
+
+  @Override
+  protected void doRollback(DefaultTransactionStatus status) {
+    store.rollback(((Handle) status.getTransaction()).tx);
+  }
+
+  @Override
+  protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+    ((Handle) status.getTransaction()).tx.rollbackOnly = true;
+  }
+
+  @Override
+  protected void doCleanupAfterCompletion(Object transaction) {
+    TransactionSynchronizationManager.unbindResourceIfPossible(store);
+  }
+
+  private static final class Handle implements SmartTransactionObject {
+    private MemoryTransaction tx;
+
+    private Handle(MemoryTransaction tx) {
+      this.tx = tx;
+    }
+
+    @Override
+    public boolean isRollbackOnly() {
+      return tx != null && tx.rollbackOnly;
+    }
+
+    @Override
+    public void flush() {}
+  }
+}
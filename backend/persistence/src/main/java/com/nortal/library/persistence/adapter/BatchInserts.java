@@ -0,0 +1,54 @@
+package com.nortal.library.persistence.adapter;
+
+import jakarta.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.util.List;
+import org.hibernate.Session;
+
+/** Persists new entities with JDBC batching switched on for the current session only. */
+final class BatchInserts {
+
+  private BatchInserts() {}
+
+  static void persistAll(EntityManager entityManager, List<?> entities) {
+    if (entities.isEmpty()) {
+      return;
+    }
+    Session session = entityManager.unwrap(Session.class);
+    Integer previous = session.getJdbcBatchSize();
+    // one statement per entity type, executed as a single JDBC batch on flush
+    session.setJdbcBatchSize(entities.size());
+    try {
+      entities.forEach(entityManager::persist);
+      entityManager.flush();
+    } finally {
+      session.setJdbcBatchSize(previous);
+    }
+    // the rows are written; keep the persistence context from growing over a long import
+    entities.forEach(entityManager::detach);
+  }
+
+  /**
+   * Runs {@code sql} once per row as one JDBC batch on the session's connection. For entities with
+   * an identity id, which Hibernate inserts one statement at a time to read the id back.
+   */
+  static void insertRows(EntityManager entityManager, String sql, List<List<String>> rows) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    entityManager
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                for (List<String> row : rows) {
+                  for (int i = 0; i < row.size(); i++) {
+                    insert.setString(i + 1, row.get(i));
+                  }
+                  insert.addBatch();
+                }
+                insert.executeBatch();
+              }
+            });
+  }
+}
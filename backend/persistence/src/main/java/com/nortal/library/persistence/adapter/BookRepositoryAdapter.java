@@ -1,19 +1,55 @@
 package com.nortal.library.persistence.adapter;
 
 import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookTitle;
+import com.nortal.library.core.domain.BookView;
+import com.nortal.library.core.domain.CirculationStats;
+import com.nortal.library.core.domain.MemberReservation;
+import com.nortal.library.core.domain.QueueCandidate;
+import com.nortal.library.core.domain.Reservation;
 import com.nortal.library.core.port.BookRepository;
 import com.nortal.library.persistence.jpa.JpaBookRepository;
+import com.nortal.library.persistence.jpa.JpaReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Profile("!memory")
 public class BookRepositoryAdapter implements BookRepository {
 
   private final JpaBookRepository jpaRepository;
+  private final JpaReservationRepository reservationRepository;
+  private final EntityManager entityManager;
+  // keeps the IN list of a view or queue lookup bounded however many books a caller passes
+  private final int lookupBatchSize;
 
-  public BookRepositoryAdapter(JpaBookRepository jpaRepository) {
+  public BookRepositoryAdapter(
+      JpaBookRepository jpaRepository,
+      JpaReservationRepository reservationRepository,
+      EntityManager entityManager,
+      @Value("${library.lookup.batch-size:500}") int lookupBatchSize) {
+    if (lookupBatchSize < 1) {
+      throw new IllegalArgumentException("library.lookup.batch-size must be at least 1");
+    }
     this.jpaRepository = jpaRepository;
+    this.reservationRepository = reservationRepository;
+    this.entityManager = entityManager;
+    this.lookupBatchSize = lookupBatchSize;
   }
 
   @Override
@@ -22,8 +58,44 @@ public class BookRepositoryAdapter implements BookRepository {
   }
 
   @Override
-  public List<Book> findAll() {
-    return jpaRepository.findAll();
+  public List<BookView> findAll() {
+    return jpaRepository.findViews();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void streamAll(Consumer<Book> consumer) {
+    try (Stream<Book> books = jpaRepository.streamAllOrderedById()) {
+      books.forEach(
+          book -> {
+            consumer.accept(book);
+            // keep the persistence context from growing with the result set
+            entityManager.detach(book);
+          });
+    }
+  }
+
+  @Override
+  public List<Book> findAllById(Collection<String> ids) {
+    return jpaRepository.findAllById(ids);
+  }
+
+  @Override
+  public List<BookView> findViewsById(Collection<String> ids) {
+    return inBatches(ids, jpaRepository::findViewsById);
+  }
+
+  @Override
+  public List<BookView> findPageAfter(String afterId, int limit) {
+    if (afterId == null) {
+      return jpaRepository.findViewPage(Limit.of(limit));
+    }
+    return jpaRepository.findViewPageAfter(afterId, Limit.of(limit));
+  }
+
+  @Override
+  public List<BookTitle> findTitlesById(Collection<String> ids) {
+    return jpaRepository.findTitlesById(ids);
   }
 
   @Override
@@ -31,6 +103,12 @@ public class BookRepositoryAdapter implements BookRepository {
     return jpaRepository.save(book);
   }
 
+  @Override
+  @Transactional
+  public void insertAll(List<Book> books) {
+    BatchInserts.persistAll(entityManager, books);
+  }
+
   @Override
   public void delete(Book book) {
     jpaRepository.delete(book);
@@ -46,4 +124,118 @@ public class BookRepositoryAdapter implements BookRepository {
   public long countByLoanedTo(String memberId) {
     return jpaRepository.countByLoanedTo(memberId);
   }
+
+  @Override
+  public List<Book> findByLoanedTo(String memberId) {
+    return jpaRepository.findByLoanedToOrderByIdAsc(memberId);
+  }
+
+  @Override
+  public List<MemberReservation> findReservationsByMember(String memberId) {
+    return reservationRepository.findReservationsByMember(memberId);
+  }
+
+  @Override
+  public Optional<String> findQueueHead(String bookId) {
+    return reservationRepository
+        .findFirstByBookIdOrderBySeqAsc(bookId)
+        .map(Reservation::getMemberId);
+  }
+
+  @Override
+  public boolean isQueued(String bookId, String memberId) {
+    return reservationRepository.existsByBookIdAndMemberId(bookId, memberId);
+  }
+
+  @Override
+  @Transactional
+  public void enqueue(String bookId, String memberId) {
+    lockQueue(bookId);
+    reservationRepository.save(new Reservation(bookId, memberId));
+  }
+
+  @Override
+  @Transactional
+  public void enqueueAll(Map<String, List<String>> queues) {
+    BatchInserts.insertRows(
+        entityManager,
+        "insert into book_reservations (book_id, member_id) values (?, ?)",
+        queues.entrySet().stream()
+            .flatMap(q -> q.getValue().stream().map(memberId -> List.of(q.getKey(), memberId)))
+            .toList());
+  }
+
+  @Override
+  @Transactional
+  public boolean dequeue(String bookId, String memberId) {
+    lockQueue(bookId);
+    return reservationRepository.deleteEntry(bookId, memberId) > 0;
+  }
+
+  @Override
+  @Transactional
+  public void clearQueue(String bookId) {
+    reservationRepository.deleteQueue(bookId);
+  }
+
+  // queue rows carry no version of their own, so a queue change bumps the book's: it waits for a
+  // concurrent change to the same book and then fails as stale, which the retry turns into a
+  // re-read
+  private void lockQueue(String bookId) {
+    entityManager.find(Book.class, bookId, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+  }
+
+  @Override
+  public List<QueueCandidate> findQueueCandidates(String bookId) {
+    return reservationRepository.findQueueCandidates(bookId);
+  }
+
+  @Override
+  @Transactional
+  public void dequeueAll(String bookId, Collection<String> memberIds) {
+    if (!memberIds.isEmpty()) {
+      reservationRepository.deleteEntries(bookId, memberIds);
+    }
+  }
+
+  @Override
+  public Map<String, List<String>> findQueues(Collection<String> bookIds) {
+    Map<String, List<String>> queues = new HashMap<>();
+    for (Reservation reservation : inBatches(bookIds, reservationRepository::findQueues)) {
+      queues
+          .computeIfAbsent(reservation.getBookId(), id -> new ArrayList<>())
+          .add(reservation.getMemberId());
+    }
+    return queues;
+  }
+
+  private <T> List<T> inBatches(Collection<String> ids, Function<List<String>, List<T>> lookup) {
+    List<String> all = List.copyOf(ids);
+    if (all.size() <= lookupBatchSize) {
+      return lookup.apply(all);
+    }
+    List<T> found = new ArrayList<>();
+    for (int from = 0; from < all.size(); from += lookupBatchSize) {
+      found.addAll(lookup.apply(all.subList(from, Math.min(from + lookupBatchSize, all.size()))));
+    }
+    return found;
+  }
+
+  @Override
+  public List<BookView> findLoansDueBefore(
+      LocalDate date, LocalDate afterDueDate, String afterId, int limit) {
+    if (afterDueDate == null) {
+      return jpaRepository.findLoansDueBefore(date, Limit.of(limit));
+    }
+    return jpaRepository.findLoansDueBefore(date, afterDueDate, afterId, Limit.of(limit));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CirculationStats circulationStats() {
+    return new CirculationStats(
+        jpaRepository.countByLoanedToIsNotNull(),
+        reservationRepository.count(),
+        reservationRepository.findLongestQueue());
+  }
 }
@@ -1,19 +1,40 @@
 package com.nortal.library.persistence.adapter;
 
 import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
 import com.nortal.library.core.port.MemberRepository;
 import com.nortal.library.persistence.jpa.JpaMemberRepository;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Profile("!memory")
 public class MemberRepositoryAdapter implements MemberRepository {
 
+  /** Caches members known to exist; save and delete evict the member's entry. */
+  public static final String EXISTS_CACHE = "memberExists";
+
   private final JpaMemberRepository jpaRepository;
+  private final EntityManager entityManager;
+  private final CacheManager cacheManager;
 
-  public MemberRepositoryAdapter(JpaMemberRepository jpaRepository) {
+  public MemberRepositoryAdapter(
+      JpaMemberRepository jpaRepository, EntityManager entityManager, CacheManager cacheManager) {
     this.jpaRepository = jpaRepository;
+    this.entityManager = entityManager;
+    this.cacheManager = cacheManager;
   }
 
   @Override
@@ -22,22 +43,90 @@ public class MemberRepositoryAdapter implements MemberRepository {
   }
 
   @Override
-  public List<Member> findAll() {
-    return jpaRepository.findAll();
+  public List<MemberView> findAll() {
+    return jpaRepository.findViews();
+  }
+
+  @Override
+  public List<Member> findAllById(Collection<String> ids) {
+    List<Member> members = jpaRepository.findAllById(ids);
+    // only hits are cached: a miss put here could outlive an insert that commits while this
+    // transaction is still open, since that insert's eviction would already have run
+    Cache exists = cacheManager.getCache(EXISTS_CACHE);
+    if (exists != null) {
+      members.forEach(member -> exists.putIfAbsent(member.getId(), true));
+    }
+    return members;
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public void streamAll(Consumer<Member> consumer) {
+    try (Stream<Member> members = jpaRepository.streamAllOrderedById()) {
+      members.forEach(
+          member -> {
+            consumer.accept(member);
+            // keep the persistence context from growing with the result set
+            entityManager.detach(member);
+          });
+    }
+  }
+
+  @Override
+  public List<MemberView> findPageAfter(String afterId, int limit) {
+    if (afterId == null) {
+      return jpaRepository.findViewPage(Limit.of(limit));
+    }
+    return jpaRepository.findViewPageAfter(afterId, Limit.of(limit));
+  }
+
+  @Override
+  @CacheEvict(cacheNames = EXISTS_CACHE, key = "#member.id")
   public Member save(Member member) {
     return jpaRepository.save(member);
   }
 
   @Override
+  @Transactional
+  public void insertAll(List<Member> members) {
+    BatchInserts.persistAll(entityManager, members);
+    // the existence cache may hold a miss for any of them
+    Cache exists = cacheManager.getCache(EXISTS_CACHE);
+    if (exists != null) {
+      members.forEach(member -> exists.evict(member.getId()));
+    }
+  }
+
+  @Override
+  @CacheEvict(cacheNames = EXISTS_CACHE, key = "#member.id")
   public void delete(Member member) {
     jpaRepository.delete(member);
   }
 
+  // not sync: Caffeine would run the lookup inside a map bin's monitor, pinning a virtual thread's
+  // carrier while it waits for a connection; concurrent misses on one id just both query.
+  // Only hits are cached, as in findAllById: the put is deferred to the caller's commit, so a miss
+  // could land after the eviction of an insert that committed meanwhile and hide the new member
   @Override
+  @Cacheable(cacheNames = EXISTS_CACHE, unless = "!#result")
   public boolean existsById(String id) {
     return jpaRepository.existsById(id);
   }
+
+  @Override
+  public int activeLoanCount(String memberId) {
+    return jpaRepository.findActiveLoans(memberId).orElse(0);
+  }
+
+  @Override
+  @Transactional
+  public void adjustActiveLoans(String memberId, int delta) {
+    jpaRepository.adjustActiveLoans(memberId, delta);
+  }
+
+  @Override
+  @Transactional
+  public int reconcileActiveLoans() {
+    return jpaRepository.reconcileActiveLoans();
+  }
 }
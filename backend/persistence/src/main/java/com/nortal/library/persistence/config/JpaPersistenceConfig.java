@@ -0,0 +1,13 @@
+package com.nortal.library.persistence.config;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/** The H2/JPA storage; the default unless the {@code memory} profile swaps in the journal store. */
+@Configuration
+@Profile("!memory")
+@EntityScan(basePackages = "com.nortal.library.core")
+@EnableJpaRepositories(basePackages = "com.nortal.library.persistence.jpa")
+public class JpaPersistenceConfig {}
@@ -1,9 +1,69 @@
 package com.nortal.library.persistence.jpa;
 
 import com.nortal.library.core.domain.Book;
+import com.nortal.library.core.domain.BookTitle;
+import com.nortal.library.core.domain.BookView;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface JpaBookRepository extends JpaRepository<Book, String> {
+  // read paths select straight into views: no entity is hydrated, snapshotted or dirty-checked
+  String VIEW =
+      "select new com.nortal.library.core.domain.BookView(b.id, b.title, b.loanedTo, b.dueDate)"
+          + " from Book b";
+
   // added for canMemberBorrow
   long countByLoanedTo(String memberId);
+
+  long countByLoanedToIsNotNull();
+
+  @Query(VIEW + " order by b.id")
+  List<BookView> findViews();
+
+  @Query(VIEW + " order by b.id")
+  List<BookView> findViewPage(Limit limit);
+
+  @Query(VIEW + " where b.id > :afterId order by b.id")
+  List<BookView> findViewPageAfter(@Param("afterId") String afterId, Limit limit);
+
+  @Query(VIEW + " where b.id in :ids")
+  List<BookView> findViewsById(@Param("ids") Collection<String> ids);
+
+  List<Book> findByLoanedToOrderByIdAsc(String memberId);
+
+  @Query(
+      "select new com.nortal.library.core.domain.BookTitle(b.id, b.title)"
+          + " from Book b where b.id in :ids")
+  List<BookTitle> findTitlesById(@Param("ids") Collection<String> ids);
+
+  // both overdue queries walk idx_books_due_date instead of the whole table
+  @Query(VIEW + " where b.loanedTo is not null and b.dueDate < :date order by b.dueDate, b.id")
+  List<BookView> findLoansDueBefore(@Param("date") LocalDate date, Limit limit);
+
+  @Query(
+      VIEW
+          + " where b.loanedTo is not null and b.dueDate < :date"
+          + " and (b.dueDate > :afterDueDate or (b.dueDate = :afterDueDate and b.id > :afterId))"
+          + " order by b.dueDate, b.id")
+  List<BookView> findLoansDueBefore(
+      @Param("date") LocalDate date,
+      @Param("afterDueDate") LocalDate afterDueDate,
+      @Param("afterId") String afterId,
+      Limit limit);
+
+  // forward-only cursor for exports; callers must consume it inside a transaction
+  @QueryHints({
+    @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+    @QueryHint(name = "org.hibernate.readOnly", value = "true")
+  })
+  @Query("select b from Book b order by b.id")
+  Stream<Book> streamAllOrderedById();
 }
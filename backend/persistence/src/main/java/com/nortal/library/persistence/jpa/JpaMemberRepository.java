@@ -1,6 +1,53 @@
 package com.nortal.library.persistence.jpa;
 
 import com.nortal.library.core.domain.Member;
+import com.nortal.library.core.domain.MemberView;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface JpaMemberRepository extends JpaRepository<Member, String> {}
+public interface JpaMemberRepository extends JpaRepository<Member, String> {
+  // like JpaBookRepository.VIEW
+  String VIEW = "select new com.nortal.library.core.domain.MemberView(m.id, m.name) from Member m";
+
+  @Query(VIEW + " order by m.id")
+  List<MemberView> findViews();
+
+  @Query(VIEW + " order by m.id")
+  List<MemberView> findViewPage(Limit limit);
+
+  @Query(VIEW + " where m.id > :afterId order by m.id")
+  List<MemberView> findViewPageAfter(@Param("afterId") String afterId, Limit limit);
+
+  // forward-only cursor for exports; callers must consume it inside a transaction
+  @QueryHints({
+    @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+    @QueryHint(name = "org.hibernate.readOnly", value = "true")
+  })
+  @Query("select m from Member m order by m.id")
+  Stream<Member> streamAllOrderedById();
+
+  @Query("select m.activeLoans from Member m where m.id = :id")
+  Optional<Integer> findActiveLoans(@Param("id") String id);
+
+  @Modifying
+  @Query("update Member m set m.activeLoans = m.activeLoans + :delta where m.id = :id")
+  int adjustActiveLoans(@Param("id") String id, @Param("delta") int delta);
+
+  // only touches members whose counter disagrees with books.loaned_to; the row count is the drift
+  @Modifying
+  @Query(
+      value =
+          "update members m set active_loans ="
+              + " (select count(*) from books b where b.loaned_to = m.id)"
+              + " where active_loans <> (select count(*) from books b where b.loaned_to = m.id)",
+      nativeQuery = true)
+  int reconcileActiveLoans();
+}
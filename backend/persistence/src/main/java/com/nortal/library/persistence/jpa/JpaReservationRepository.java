@@ -0,0 +1,56 @@
+package com.nortal.library.persistence.jpa;
+
+import com.nortal.library.core.domain.MemberReservation;
+import com.nortal.library.core.domain.QueueCandidate;
+import com.nortal.library.core.domain.Reservation;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JpaReservationRepository extends JpaRepository<Reservation, Long> {
+  Optional<Reservation> findFirstByBookIdOrderBySeqAsc(String bookId);
+
+  boolean existsByBookIdAndMemberId(String bookId, String memberId);
+
+  @Query("select r from Reservation r where r.bookId in :bookIds order by r.bookId, r.seq")
+  List<Reservation> findQueues(@Param("bookIds") Collection<String> bookIds);
+
+  // position is the number of members queued ahead on the same book
+  @Query(
+      "select new com.nortal.library.core.domain.MemberReservation(r.bookId,"
+          + " (select count(o) from Reservation o where o.bookId = r.bookId and o.seq < r.seq))"
+          + " from Reservation r where r.memberId = :memberId order by r.bookId")
+  List<MemberReservation> findReservationsByMember(@Param("memberId") String memberId);
+
+  // left join so members deleted while queued still come back, flagged as missing
+  @Query(
+      "select new com.nortal.library.core.domain.QueueCandidate(r.memberId,"
+          + " case when m.id is null then false else true end, coalesce(m.activeLoans, 0))"
+          + " from Reservation r left join Member m on m.id = r.memberId"
+          + " where r.bookId = :bookId order by r.seq")
+  List<QueueCandidate> findQueueCandidates(@Param("bookId") String bookId);
+
+  @Query(
+      value =
+          "select coalesce(max(c), 0) from"
+              + " (select count(*) c from book_reservations group by book_id) queues",
+      nativeQuery = true)
+  long findLongestQueue();
+
+  @Modifying
+  @Query("delete from Reservation r where r.bookId = :bookId and r.memberId in :memberIds")
+  int deleteEntries(
+      @Param("bookId") String bookId, @Param("memberIds") Collection<String> memberIds);
+
+  @Modifying
+  @Query("delete from Reservation r where r.bookId = :bookId and r.memberId = :memberId")
+  int deleteEntry(@Param("bookId") String bookId, @Param("memberId") String memberId);
+
+  @Modifying
+  @Query("delete from Reservation r where r.bookId = :bookId")
+  int deleteQueue(@Param("bookId") String bookId);
+}
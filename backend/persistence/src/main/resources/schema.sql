@@ -1,18 +1,53 @@
 CREATE TABLE IF NOT EXISTS members (
     id VARCHAR(255) PRIMARY KEY,
-    name VARCHAR(255) NOT NULL
+    name VARCHAR(255) NOT NULL,
+    active_loans INTEGER DEFAULT 0 NOT NULL
 );
 
+ALTER TABLE members ADD COLUMN IF NOT EXISTS active_loans INTEGER DEFAULT 0 NOT NULL;
+
 CREATE TABLE IF NOT EXISTS books (
     id VARCHAR(255) PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     loaned_to VARCHAR(255),
-    due_date DATE
+    due_date DATE,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
+ALTER TABLE books ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_books_due_date ON books (due_date, id);
+CREATE INDEX IF NOT EXISTS idx_books_loaned_to ON books (loaned_to);
+
+-- one row per waiting member; queue order is seq, so enqueue/dequeue/cancel touch a single row
 CREATE TABLE IF NOT EXISTS book_reservations (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY,
     book_id VARCHAR(255) NOT NULL,
-    position INTEGER NOT NULL,
-    member_id VARCHAR(255),
-    CONSTRAINT fk_book_reservation_book FOREIGN KEY (book_id) REFERENCES books (id)
+    member_id VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_book_reservations PRIMARY KEY (seq),
+    CONSTRAINT fk_book_reservation_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT uq_book_reservations_book_member UNIQUE (book_id, member_id)
+);
+
+-- databases from the @OrderColumn layout: existing rows are numbered in insertion order, which
+-- for each book is the order of its old position column (list updates rewrote member_id in place)
+ALTER TABLE book_reservations ADD COLUMN IF NOT EXISTS seq BIGINT GENERATED BY DEFAULT AS IDENTITY;
+ALTER TABLE book_reservations DROP COLUMN IF EXISTS position;
+DELETE FROM book_reservations WHERE member_id IS NULL;
+DELETE FROM book_reservations r WHERE EXISTS (
+    SELECT 1 FROM book_reservations o WHERE o.book_id = r.book_id AND o.member_id = r.member_id AND o.seq < r.seq
+);
+ALTER TABLE book_reservations ALTER COLUMN member_id SET NOT NULL;
+ALTER TABLE book_reservations ADD CONSTRAINT IF NOT EXISTS pk_book_reservations PRIMARY KEY (seq);
+ALTER TABLE book_reservations ADD CONSTRAINT IF NOT EXISTS uq_book_reservations_book_member UNIQUE (book_id, member_id);
+
+CREATE INDEX IF NOT EXISTS idx_book_reservations_book_seq ON book_reservations (book_id, seq);
+CREATE INDEX IF NOT EXISTS idx_book_reservations_member ON book_reservations (member_id);
+
+-- one row, rewritten by the primary every library.replica.heartbeat-ms when replica reads are on;
+-- how far behind a replica's copy is tells its lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INTEGER PRIMARY KEY,
+    position BIGINT NOT NULL,
+    written_at BIGINT NOT NULL
 );
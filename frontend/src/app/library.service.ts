@@ -16,19 +16,50 @@ export interface ActionResult {
   nextMemberId?: string | null;
 }
 
+export interface MemberSummary {
+  ok: boolean;
+  reason?: string;
+  loans: { bookId: string; title: string; dueDate: string }[];
+  reservations: { bookId: string; title: string; position: number }[];
+}
+
+interface PageResponse<T> {
+  items: T[];
+  nextCursor?: string | null;
+}
+
+const PAGE_SIZE = 500;
+
+interface CachedList {
+  etag: string;
+  items: unknown[];
+}
+
+interface CachedResponse {
+  etag: string;
+  body: unknown;
+}
+
 export class LibraryApiService {
+  // the last full walk of each list, revalidated with If-None-Match instead of fetched again;
+  // If-None-Match is not a CORS-safelisted header, so the API lets browsers keep the preflight
+  // (Access-Control-Max-Age) rather than send one before every read
+  private readonly lists = new Map<string, CachedList>();
+  // the same for single responses such as member summaries
+  private readonly responses = new Map<string, CachedResponse>();
+
   constructor(private readonly baseUrl = 'http://localhost:8080/api') {}
 
   async books(): Promise<Book[]> {
-    const res = await fetch(`${this.baseUrl}/books`);
-    const data = await res.json();
-    return data.items as Book[];
+    return this.allPages<Book>('/books');
   }
 
   async members(): Promise<Member[]> {
-    const res = await fetch(`${this.baseUrl}/members`);
-    const data = await res.json();
-    return data.items as Member[];
+    return this.allPages<Member>('/members');
+  }
+
+  async memberSummary(memberId: string): Promise<MemberSummary> {
+    return this.revalidated<MemberSummary>(`/members/${encodeURIComponent(memberId)}/summary`);
   }
 
   async borrow(bookId: string, memberId: string): Promise<ActionResult> {
@@ -75,6 +106,53 @@ export class LibraryApiService {
     return this.delete('/members', { id });
   }
 
+  // walks the keyset pages so no single response has to carry the whole catalog
+  private async allPages<T>(path: string): Promise<T[]> {
+    // every page of a list carries the same ETag, the catalog version it was read at; if the first
+    // page is unchanged since the last walk, so is the rest of the list
+    const cached = this.lists.get(path);
+    const items: T[] = [];
+    let etag: string | null = null;
+    let cursor: string | null | undefined = null;
+    do {
+      const query = `limit=${PAGE_SIZE}` + (cursor ? `&cursor=${encodeURIComponent(cursor)}` : '');
+      const headers: Record<string, string> = !cursor && cached ? { 'If-None-Match': cached.etag } : {};
+      const res = await fetch(`${this.baseUrl}${path}?${query}`, { headers });
+      if (res.status === 304 && cached) {
+        return cached.items as T[];
+      }
+      const pageEtag = res.headers.get('ETag');
+      // a change that commits mid-walk leaves pages from two versions: not worth keeping
+      etag = !cursor || pageEtag === etag ? pageEtag : null;
+      const data = (await res.json()) as PageResponse<T>;
+      items.push(...data.items);
+      cursor = data.nextCursor;
+    } while (cursor);
+    if (etag) {
+      this.lists.set(path, { etag, items });
+    } else {
+      this.lists.delete(path);
+    }
+    return items;
+  }
+
+  private async revalidated<T>(path: string): Promise<T> {
+    const cached = this.responses.get(path);
+    const headers: Record<string, string> = cached ? { 'If-None-Match': cached.etag } : {};
+    const res = await fetch(`${this.baseUrl}${path}`, { headers });
+    if (res.status === 304 && cached) {
+      return cached.body as T;
+    }
+    const body = (await res.json()) as T;
+    const etag = res.headers.get('ETag');
+    if (etag) {
+      this.responses.set(path, { etag, body });
+    } else {
+      this.responses.delete(path);
+    }
+    return body;
+  }
+
   private async post(path: string, payload: Record<string, string>): Promise<ActionResult> {
     const res = await fetch(`${this.baseUrl}${path}`, {
       method: 'POST',